@@ -0,0 +1,54 @@
+package cn.excel;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ServiceLoader;
+
+/**
+ * 默认的HandleField工厂
+ *
+ * @author yutyi
+ */
+final class DefaultHandleFieldFactory implements HandleFieldFactory {
+
+	static final HandleFieldFactory INSTANCE = load();
+
+	/**
+	 * leap.core.AppContext.getBean(Class)，不存在时为null
+	 */
+	private final Method getBean;
+
+	private DefaultHandleFieldFactory() {
+		Method method = null;
+		try {
+			method = Class.forName("leap.core.AppContext").getMethod("getBean", Class.class);
+		} catch (ClassNotFoundException | NoSuchMethodException ex) {
+			// 没有使用leap
+		}
+		this.getBean = method;
+	}
+
+	private static HandleFieldFactory load() {
+		for (HandleFieldFactory factory : ServiceLoader.load(HandleFieldFactory.class)) {
+			return factory;
+		}
+		return new DefaultHandleFieldFactory();
+	}
+
+	@Override
+	public HandleField create(Class<? extends HandleField> type) throws Exception {
+		if (getBean != null) {
+			try {
+				HandleField handleField = (HandleField) getBean.invoke(null, type);
+				if (handleField != null) {
+					return handleField;
+				}
+			} catch (Exception ex) {
+				// 容器中没有时创建实例
+			}
+		}
+		Constructor<? extends HandleField> constructor = type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		return constructor.newInstance();
+	}
+}
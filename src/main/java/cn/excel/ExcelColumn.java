@@ -0,0 +1,120 @@
+package cn.excel;
+
+import cn.excel.util.Converter;
+import cn.excel.util.Converters;
+import cn.excel.util.DateParser;
+import cn.excel.util.Property;
+
+import java.lang.reflect.Field;
+
+/**
+ * 注解@ExcelField的列定义，创建后不可变
+ *
+ * @author yutyi
+ */
+public class ExcelColumn {
+
+	/**
+	 * 列下标(按sort排序后)
+	 */
+	private final int index;
+
+	private final Field field;
+
+	private final ExcelField excelField;
+
+	/**
+	 * 实体属性，不可写时为null
+	 */
+	private final Property property;
+
+	/**
+	 * 日期解析器，记住本列的日期格式，检查格式和类型转换共用
+	 */
+	private final DateParser dateParser = new DateParser();
+
+	/**
+	 * 格式校验器，不需要校验时为null
+	 */
+	private final Validator validator;
+
+	/**
+	 * 属性类型转换器
+	 */
+	private final Converter converter;
+
+	/**
+	 * 属性处理器类型，未配置时为null
+	 */
+	private final Class<? extends HandleField> handleFieldType;
+
+	@SuppressWarnings("unchecked")
+	ExcelColumn(int index, Field field, ExcelField excelField) {
+		this.index = index;
+		this.field = field;
+		this.excelField = excelField;
+		this.property = Property.of(field.getDeclaringClass(), field.getName());
+		this.validator = Validators.compile(excelField.format(), dateParser);
+		this.converter = property == null ? null : Converters.forType(property.getType(), dateParser);
+		this.handleFieldType = HandleField.class.isAssignableFrom(excelField.handleField()) ? (Class<? extends HandleField>) excelField.handleField() : null;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	public ExcelField getExcelField() {
+		return excelField;
+	}
+
+	/**
+	 * 属性名
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return field.getName();
+	}
+
+	/**
+	 * 导出Excel列名
+	 *
+	 * @return
+	 */
+	public String getColumnName() {
+		return excelField.columnName();
+	}
+
+	/**
+	 * 显示名称，未配置列名时使用属性名
+	 *
+	 * @return
+	 */
+	public String getTitle() {
+		return excelField.columnName().isEmpty() ? field.getName() : excelField.columnName();
+	}
+
+	public Property getProperty() {
+		return property;
+	}
+
+	public DateParser getDateParser() {
+		return dateParser;
+	}
+
+	public Validator getValidator() {
+		return validator;
+	}
+
+	public Converter getConverter() {
+		return converter;
+	}
+
+	public Class<? extends HandleField> getHandleFieldType() {
+		return handleFieldType;
+	}
+}
@@ -26,6 +26,12 @@ public @interface ExcelField {
 	 * @return
 	 */
 	boolean unique() default false;
+
+	/**
+	 * 组合唯一检查，相同组名的字段组合起来不允许重复
+	 * @return
+	 */
+	String uniqueGroup() default "";
 	
 	/**
 	 * 检查是否指定格式<br/>
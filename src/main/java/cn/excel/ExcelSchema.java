@@ -0,0 +1,171 @@
+package cn.excel;
+
+import cn.excel.util.Property;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 类的@ExcelField定义，每个类只解析一次并全局缓存，导入导出共用<br/>
+ * 列按sort升序排列，sort相同时保持属性声明顺序
+ *
+ * @author yutyi
+ */
+public class ExcelSchema {
+
+	private static final ClassValue<ExcelSchema> SCHEMAS = new ClassValue<ExcelSchema>() {
+		@Override
+		protected ExcelSchema computeValue(Class<?> type) {
+			return new ExcelSchema(type);
+		}
+	};
+
+	private final Class<?> type;
+
+	private final List<ExcelColumn> columns;
+
+	/**
+	 * 按属性名查找列
+	 */
+	private final Map<String, ExcelColumn> columnsByName = new HashMap<>();
+
+	/**
+	 * 唯一约束，每个约束包含一列或多列(组合唯一)
+	 */
+	private final List<List<ExcelColumn>> uniqueKeys;
+
+	/**
+	 * 其他实体类型中与列同名的属性，下标与列对应
+	 */
+	private final Map<Class<?>, Property[]> propertiesMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 各列属性的读取方法，导出实体时才编译
+	 */
+	private volatile List<Function<Object, Object>> getters;
+
+	private ExcelSchema(Class<?> type) {
+		this.type = type;
+		// 获取列上的注解，并根据注解进行排序
+		List<Field> fields = new ArrayList<>();
+		for (Field field : type.getDeclaredFields()) {
+			if (field.getAnnotation(ExcelField.class) != null) {
+				fields.add(field);
+			}
+		}
+		fields.sort(Comparator.comparingInt(field -> field.getAnnotation(ExcelField.class).sort()));
+		List<ExcelColumn> columns = new ArrayList<>(fields.size());
+		for (Field field : fields) {
+			columns.add(new ExcelColumn(columns.size(), field, field.getAnnotation(ExcelField.class)));
+		}
+		this.columns = Collections.unmodifiableList(columns);
+		for (ExcelColumn column : columns) {
+			columnsByName.put(column.getName(), column);
+		}
+
+		List<List<ExcelColumn>> uniqueKeys = new ArrayList<>();
+		Map<String, List<ExcelColumn>> groups = new LinkedHashMap<>();
+		for (ExcelColumn column : columns) {
+			ExcelField excelField = column.getExcelField();
+			if (excelField.unique()) {
+				uniqueKeys.add(Collections.singletonList(column));
+			}
+			if (!excelField.uniqueGroup().isEmpty()) {
+				groups.computeIfAbsent(excelField.uniqueGroup(), group -> new ArrayList<>()).add(column);
+			}
+		}
+		for (List<ExcelColumn> group : groups.values()) {
+			uniqueKeys.add(Collections.unmodifiableList(group));
+		}
+		this.uniqueKeys = Collections.unmodifiableList(uniqueKeys);
+	}
+
+	/**
+	 * 获取类的列定义
+	 *
+	 * @param type
+	 * @return
+	 */
+	public static ExcelSchema of(Class<?> type) {
+		return SCHEMAS.get(type);
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public List<ExcelColumn> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * 获取唯一约束
+	 *
+	 * @return
+	 */
+	public List<List<ExcelColumn>> getUniqueKeys() {
+		return uniqueKeys;
+	}
+
+	public ExcelColumn getColumn(int index) {
+		return columns.get(index);
+	}
+
+	/**
+	 * 按属性名获取列
+	 *
+	 * @param name
+	 *            属性名
+	 * @return 不存在时返回null
+	 */
+	public ExcelColumn getColumn(String name) {
+		return columnsByName.get(name);
+	}
+
+	public int size() {
+		return columns.size();
+	}
+
+	/**
+	 * 获取实体类型中与各列同名的属性，用于将数据绑定到其他类型的实体
+	 *
+	 * @param beanClass
+	 *            实体类型
+	 * @return 下标与列对应，不存在的属性为null，返回的数组不可修改
+	 */
+	public Property[] getProperties(Class<?> beanClass) {
+		return propertiesMap.computeIfAbsent(beanClass, clazz -> {
+			Property[] properties = new Property[columns.size()];
+			for (ExcelColumn column : columns) {
+				properties[column.getIndex()] = clazz == type ? column.getProperty() : Property.of(clazz, column.getName());
+			}
+			return properties;
+		});
+	}
+
+	/**
+	 * 获取各列属性的读取方法，用于导出实体
+	 *
+	 * @return 下标与列对应，不可读的属性为null，不可修改
+	 */
+	public List<Function<Object, Object>> getGetters() {
+		List<Function<Object, Object>> result = getters;
+		if (result == null) {
+			List<Function<Object, Object>> list = new ArrayList<>(Collections.nCopies(columns.size(), null));
+			for (ExcelColumn column : columns) {
+				list.set(column.getIndex(), Property.getter(type, column.getName()));
+			}
+			result = Collections.unmodifiableList(list);
+			getters = result;
+		}
+		return result;
+	}
+}
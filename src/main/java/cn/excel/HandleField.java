@@ -1,9 +1,16 @@
 package cn.excel;
 
+import java.util.List;
 import java.util.Map;
 
 /**
- * 属性处理器
+ * 属性处理器<br/>
+ * 行数据中的值都是String(数值不带多余的0，布尔为True/False，日期为yyyy-MM-dd HH:mm:ss等)；<br/>
+ * 覆盖{@link #isTypedValues()}返回true后改为单元格的原始类型：文本为String，数值为Double，布尔为Boolean，日期为Date<br/>
+ * 导入时按批(每批最多1000行)调用validateBatch()和translateBatch()，默认逐行调用validate()和translate()；<br/>
+ * 需要查询数据库等外部数据的处理器可覆盖批量方法，每批只查询一次<br/>
+ * 每个导入的每一列获取一个实例；从容器中获取的单例会被多个导入共用，MultiSheetImport并行读取工作表时会在多个线程中同时调用，
+ * 此时处理器需线程安全，不能在setParams()和各方法之间通过成员变量传递状态
  * 
  * @author yutyi
  *
@@ -12,6 +19,15 @@ public abstract class HandleField {
 	
 	public abstract void setParams(Object params);
 
+	/**
+	 * 行数据是否使用单元格的原始类型，默认false，行数据中的值都转换为String
+	 * 
+	 * @return
+	 */
+	public boolean isTypedValues() {
+		return false;
+	}
+
 	/**
 	 * 获取错误消息
 	 * 
@@ -35,4 +51,37 @@ public abstract class HandleField {
 	 */
 	public abstract Object translate(Map<String, Object> columns);
 
+	/**
+	 * 批量验证数据格式，只包含该属性有值且其他检查已通过的行
+	 * 
+	 * @param fieldName
+	 * @param rows
+	 *            一批行数据
+	 * @return 下标与rows对应的错误消息，检查通过为null
+	 */
+	public String[] validateBatch(String fieldName, List<Map<String, Object>> rows) {
+		String[] messages = new String[rows.size()];
+		for (int i = 0; i < messages.length; i++) {
+			if (!this.validate(fieldName, rows.get(i))) {
+				messages[i] = this.getMessage();
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * 批量转换数据
+	 * 
+	 * @param rows
+	 *            一批行数据
+	 * @return 下标与rows对应的转换结果
+	 */
+	public Object[] translateBatch(List<Map<String, Object>> rows) {
+		Object[] values = new Object[rows.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.translate(rows.get(i));
+		}
+		return values;
+	}
+
 }
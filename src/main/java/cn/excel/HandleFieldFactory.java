@@ -0,0 +1,30 @@
+package cn.excel;
+
+/**
+ * HandleField工厂，用于从Spring等容器中获取处理器<br/>
+ * 导入时优先使用ExcelImport.setHandleFieldFactory()指定的工厂，其次使用ServiceLoader加载的实现
+ * (META-INF/services/cn.excel.HandleFieldFactory)，都没有时使用{@link #getDefault()}
+ *
+ * @author yutyi
+ */
+public interface HandleFieldFactory {
+
+	/**
+	 * 获取处理器，每个导入的每一列获取一次
+	 *
+	 * @param type
+	 *            注解中配置的处理器类型
+	 * @return
+	 * @throws Exception
+	 */
+	HandleField create(Class<? extends HandleField> type) throws Exception;
+
+	/**
+	 * 默认工厂：有ServiceLoader加载的实现时使用该实现，否则存在leap.core.AppContext时从中获取，获取不到再调用无参构造方法创建
+	 *
+	 * @return
+	 */
+	static HandleFieldFactory getDefault() {
+		return DefaultHandleFieldFactory.INSTANCE;
+	}
+}
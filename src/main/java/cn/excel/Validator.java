@@ -0,0 +1,19 @@
+package cn.excel;
+
+/**
+ * 单元格格式校验器，由@ExcelField.format编译而来，每列一个实例<br/>
+ * 并行检查时会被多个线程同时调用，实现需线程安全
+ *
+ * @author yutyi
+ */
+public interface Validator {
+
+	/**
+	 * 校验单元格值
+	 *
+	 * @param value
+	 *            非空的单元格值：String、Double、Boolean或Date，文本可通过Converters.toText获取
+	 * @return 错误消息，格式正确时返回null
+	 */
+	String validate(Object value);
+}
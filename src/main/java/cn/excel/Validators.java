@@ -0,0 +1,172 @@
+package cn.excel;
+
+import cn.excel.util.Converters;
+import cn.excel.util.DateParser;
+import cn.excel.util.DateUtils;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 格式校验器注册表，将@ExcelField.format编译为Validator<br/>
+ * format可以是注册的名称（不区分大小写），也可以是JSON规则：<br/>
+ * {"regex":"正则","msg":"错误消息"} 或 {"tags":"a,b,c","msg":"错误消息"}<br/>
+ * 自定义校验器需在首次导入对应实体前注册，列定义创建后不会重新编译
+ *
+ * @author yutyi
+ */
+public class Validators {
+
+	private final static Logger logger = LoggerFactory.getLogger(Validators.class);
+
+	private static final Pattern MOBILE = Pattern.compile("^1[3|4|5|7|8][0-9]{9}$");
+
+	private static final Map<String, Validator> VALIDATORS = new ConcurrentHashMap<>();
+
+	static {
+		Validator number = value -> value instanceof Number || NumberUtils.isNumber(Converters.toText(value)) ? null : "格式不正确，请输入数值";
+		Validator digits = value -> isDigits(value) ? null : "格式不正确，请输入整数";
+		register("double", number);
+		register("float", number);
+		register("byte", digits);
+		register("short", digits);
+		register("int", digits);
+		register("long", digits);
+		register("money", Validators::checkMoney);
+		register("mobile", value -> MOBILE.matcher(Converters.toText(value)).find() ? null : "格式不正确，请输入手机号");
+		register("tags", tags("格式不正确，请输入正确的分类格式", "排放点", "污染点", "扩散点"));
+	}
+
+	/**
+	 * 注册命名格式，同名时覆盖
+	 *
+	 * @param name
+	 *            格式名称，如mobile
+	 * @param validator
+	 */
+	public static void register(String name, Validator validator) {
+		VALIDATORS.put(name.toLowerCase(Locale.ROOT), validator);
+	}
+
+	/**
+	 * 正则校验器
+	 *
+	 * @param regex
+	 * @param message
+	 *            错误消息
+	 * @return
+	 */
+	public static Validator regex(String regex, String message) {
+		Pattern pattern = Pattern.compile(regex);
+		return value -> pattern.matcher(Converters.toText(value)).find() ? null : message;
+	}
+
+	/**
+	 * 分类校验器，值为逗号分隔的分类，每个分类都必须在可选范围内
+	 *
+	 * @param message
+	 *            错误消息
+	 * @param tags
+	 *            可选分类
+	 * @return
+	 */
+	public static Validator tags(String message, String... tags) {
+		Set<String> tagSet = new HashSet<>(Arrays.asList(tags));
+		return value -> {
+			for (String tag : Converters.toText(value).split(",")) {
+				if (!tagSet.contains(tag)) {
+					return message;
+				}
+			}
+			return null;
+		};
+	}
+
+	/**
+	 * 编译格式
+	 *
+	 * @param format
+	 *            @ExcelField.format
+	 * @param dateParser
+	 *            日期格式使用的解析器
+	 * @return 不需要校验时返回null
+	 */
+	public static Validator compile(String format, DateParser dateParser) {
+		if (StringUtils.isEmpty(format) || "string".equalsIgnoreCase(format)) {
+			return null;
+		}
+		if ("datetime".equalsIgnoreCase(format)) {
+			return date(dateParser, "格式不正确，需精确到时分秒");
+		} else if ("date".equalsIgnoreCase(format)) {
+			return date(dateParser, "格式不正确，需精确到年月日");
+		} else if ("time".equalsIgnoreCase(format)) {
+			return date(dateParser, "格式不正确，请输入时间格式");
+		} else if (format.startsWith("{") && format.endsWith("}")) {
+			return compileJson(format);
+		}
+		Validator validator = VALIDATORS.get(format.toLowerCase(Locale.ROOT));
+		if (validator == null) {
+			logger.warn("未知的格式：{}", format);
+		}
+		return validator;
+	}
+
+	private static Validator date(DateParser dateParser, String message) {
+		return value -> value instanceof Date || DateUtils.toTimestamp(Converters.toText(value), dateParser) != null ? null : message;
+	}
+
+	private static Validator compileJson(String format) {
+		try {
+			JSONObject obj = JSON.parseObject(StringUtils.replace(format, "\\", "\\\\"));
+			String msg = obj.getString("msg");
+			String regex = obj.getString("regex");
+			String tags = obj.getString("tags");
+			if (StringUtils.isNotEmpty(regex)) {
+				return regex(regex, msg);
+			} else if (StringUtils.isNotEmpty(tags)) {
+				return tags(StringUtils.defaultIfEmpty(msg, "格式不正确，请输入正确的分类格式"), StringUtils.split(tags, ","));
+			}
+		} catch (Exception ex) {
+			logger.warn("配置JSON格式错误：{}", format);
+		}
+		return null;
+	}
+
+	/**
+	 * 是否非负整数
+	 */
+	private static boolean isDigits(Object value) {
+		if (value instanceof Number) {
+			double d = ((Number) value).doubleValue();
+			return d >= 0 && d == Math.rint(d);
+		}
+		return NumberUtils.isDigits(Converters.toText(value));
+	}
+
+	private static String checkMoney(Object obj) {
+		if (obj instanceof Number) {
+			double d = ((Number) obj).doubleValue();
+			boolean valid = d >= 0 && !Double.isInfinite(d) && !Double.isNaN(d) && Converters.toDecimal(d).scale() <= 2;
+			return valid ? null : "格式不正确，请输入金额";
+		}
+		String value = Converters.toText(obj);
+		String strValue = StringUtils.removeEnd(value, "0");
+		String[] values = StringUtils.split(strValue, ".");
+		if (StringUtils.startsWith(value, "-") || !NumberUtils.isNumber(value) || (values.length == 2 && values[1].length() > 2)) {
+			return "格式不正确，请输入金额";
+		}
+		return null;
+	}
+}
@@ -0,0 +1,178 @@
+package cn.excel.export;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 按列类型写入单元格，每列在导出开始时(或遇到第一个非空值时)创建一次，样式预先绑定<br/>
+ * 值的类型与列类型不一致时交给通用写入器按值的类型处理
+ *
+ * @author yutyi
+ */
+@FunctionalInterface
+interface CellWriter {
+
+	/**
+	 * 文本超过此长度时使用自动换行样式
+	 */
+	int WRAP_LENGTH = 20;
+
+	/**
+	 * 写入单元格，值为null时只设置样式
+	 *
+	 * @param cell
+	 * @param value
+	 */
+	void write(Cell cell, Object value);
+
+	/**
+	 * 通用写入器，每次按值的类型选择格式
+	 *
+	 * @param styles
+	 *            样式列表
+	 * @return
+	 */
+	static CellWriter generic(Map<String, CellStyle> styles) {
+		CellStyle auto = styles.get("data_auto");
+		CellStyle date = styles.get("data_date");
+		CellStyle time = styles.get("data_time");
+		CellStyle dateTime = styles.get("data_datetime");
+		CellStyle number = styles.get("data_number");
+		CellStyle decimal = styles.get("data_decimal");
+		CellStyle text = styles.get("data_string");
+		return (cell, value) -> {
+			if (value == null) {
+				cell.setCellStyle(auto);
+			} else if (value instanceof java.sql.Date) {
+				cell.setCellStyle(date);
+				cell.setCellValue((Date) value);
+			} else if (value instanceof java.sql.Time) {
+				cell.setCellStyle(time);
+				cell.setCellValue((Date) value);
+			} else if (value instanceof Date) {
+				cell.setCellStyle(dateTime);
+				cell.setCellValue((Date) value);
+			} else if (value instanceof Calendar) {
+				cell.setCellStyle(auto);
+				cell.setCellValue((Calendar) value);
+			} else if (value instanceof Boolean) {
+				cell.setCellStyle(auto);
+				cell.setCellValue((Boolean) value);
+			} else if (value instanceof Short || value instanceof Integer || value instanceof Long) {
+				cell.setCellStyle(number);
+				cell.setCellValue(((Number) value).doubleValue());
+			} else if (value instanceof Float || value instanceof Double) {
+				cell.setCellStyle(decimal);
+				cell.setCellValue(((Number) value).doubleValue());
+			} else {
+				String str = ObjectUtils.toString(value);
+				cell.setCellStyle(str.length() > WRAP_LENGTH ? text : auto);
+				cell.setCellValue(str);
+			}
+		};
+	}
+
+	/**
+	 * 创建类型对应的写入器
+	 *
+	 * @param type
+	 *            属性类型或第一个非空值的类型
+	 * @param styles
+	 *            样式列表
+	 * @param fallback
+	 *            值与类型不一致时使用的写入器
+	 * @return Object、接口及抽象类等无法确定格式的类型返回null
+	 */
+	static CellWriter forType(Class<?> type, Map<String, CellStyle> styles, CellWriter fallback) {
+		CellStyle auto = styles.get("data_auto");
+		Class<?> wrapped = MethodType.methodType(type).wrap().returnType();
+		if (java.sql.Date.class.isAssignableFrom(wrapped)) {
+			return of(java.sql.Date.class, styles.get("data_date"), auto, Cell::setCellValue, fallback);
+		} else if (java.sql.Time.class.isAssignableFrom(wrapped)) {
+			return of(java.sql.Time.class, styles.get("data_time"), auto, Cell::setCellValue, fallback);
+		} else if (Date.class.isAssignableFrom(wrapped)) {
+			return of(Date.class, styles.get("data_datetime"), auto, Cell::setCellValue, fallback);
+		} else if (Calendar.class.isAssignableFrom(wrapped)) {
+			return of(Calendar.class, auto, auto, Cell::setCellValue, fallback);
+		} else if (wrapped == Boolean.class) {
+			return of(Boolean.class, auto, auto, Cell::setCellValue, fallback);
+		} else if (wrapped == Short.class || wrapped == Integer.class || wrapped == Long.class) {
+			return of(wrapped.asSubclass(Number.class), styles.get("data_number"), auto, (cell, value) -> cell.setCellValue(value.doubleValue()), fallback);
+		} else if (wrapped == Float.class || wrapped == Double.class) {
+			return of(wrapped.asSubclass(Number.class), styles.get("data_decimal"), auto, (cell, value) -> cell.setCellValue(value.doubleValue()), fallback);
+		} else if (!isTyped(wrapped)) {
+			return null;
+		}
+		CellStyle text = styles.get("data_string");
+		return of(wrapped, auto, auto, (cell, value) -> {
+			String str = ObjectUtils.toString(value);
+			if (str.length() > WRAP_LENGTH) {
+				cell.setCellStyle(text);
+			}
+			cell.setCellValue(str);
+		}, fallback);
+	}
+
+	/**
+	 * 是否可以按声明的类型确定格式，Object、接口及抽象类(日期除外)需要按值的类型确定
+	 *
+	 * @param type
+	 * @return
+	 */
+	static boolean isTyped(Class<?> type) {
+		Class<?> wrapped = MethodType.methodType(type).wrap().returnType();
+		return Date.class.isAssignableFrom(wrapped) || Calendar.class.isAssignableFrom(wrapped)
+				|| !(wrapped == Object.class || wrapped.isInterface() || Modifier.isAbstract(wrapped.getModifiers()));
+	}
+
+	/**
+	 * 固定格式的写入器
+	 *
+	 * @param type
+	 *            值类型
+	 * @param style
+	 *            非空值的样式
+	 * @param auto
+	 *            空值的样式
+	 * @param setter
+	 *            设置单元格值
+	 * @param fallback
+	 *            值与类型不一致时使用的写入器
+	 * @return
+	 */
+	static <T> CellWriter of(Class<T> type, CellStyle style, CellStyle auto, BiConsumer<Cell, T> setter, CellWriter fallback) {
+		return (cell, value) -> {
+			if (value == null) {
+				cell.setCellStyle(auto);
+			} else if (type.isInstance(value)) {
+				cell.setCellStyle(style);
+				setter.accept(cell, type.cast(value));
+			} else {
+				fallback.write(cell, value);
+			}
+		};
+	}
+
+	/**
+	 * 类型对应的列宽
+	 *
+	 * @param type
+	 * @return 不需要设置时返回0
+	 */
+	static double width(Class<?> type) {
+		if (java.sql.Date.class.isAssignableFrom(type) || java.sql.Time.class.isAssignableFrom(type)) {
+			return 9;
+		} else if (Date.class.isAssignableFrom(type)) {
+			return 16;
+		}
+		return 0;
+	}
+}
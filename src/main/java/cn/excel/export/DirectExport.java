@@ -0,0 +1,295 @@
+package cn.excel.export;
+
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
+import org.apache.commons.lang.StringUtils;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 直接写出的xlsx导出，用法与{@link ExcelExport}相同，输出格式一致 <br/>
+ * 不经过SXSSF的临时文件，写出时才读取数据，行XML边生成边压缩写入输出流，内存占用与行数无关，下载时首字节更快 <br/>
+ * DirectExport export = new DirectExport(columnNames, keys, dataIterator); <br/>
+ * export.write(respose, "test.xlsx"); <br/>
+ * 列宽在写入第一行之前确定，日期列的列宽按属性类型或第一行数据设置；数据只能写出一次
+ *
+ * @author yutyi
+ */
+public class DirectExport {
+
+	/**
+	 * 导出excel表头集合，注解导出时为null
+	 */
+	private String[] columns;
+
+	/**
+	 * 数据列Map中key集合
+	 */
+	private String[] keys;
+
+	/**
+	 * 注解@ExcelField列定义，自定义表头导出时为null
+	 */
+	private ExcelSchema schema;
+
+	/**
+	 * 数据，写出时逐行读取；注解导出时可以是Map或实体。写出后为null
+	 */
+	private Iterator<?> dataList;
+
+	/**
+	 * 写出后需要关闭的数据流
+	 */
+	private Stream<?> dataStream;
+
+	/**
+	 * 实体属性的读取方法，第一次读取实体时获取
+	 */
+	private List<Function<Object, Object>> getters;
+
+	/**
+	 * 自定义表头名（使用，分割）和key导出
+	 *
+	 * @param columns 导出excel表头集合
+	 * @param keys 数据列Map中key集合
+	 * @param dataList 数据集合
+	 */
+	public DirectExport(String columns, String keys, List<Map<String, Object>> dataList) {
+		this(columns, keys, dataList == null ? null : dataList.iterator());
+	}
+
+	/**
+	 * 自定义表头名（使用，分割）和key导出
+	 *
+	 * @param columns 导出excel表头集合
+	 * @param keys 数据列Map中key集合
+	 * @param dataList 数据迭代器
+	 */
+	public DirectExport(String columns, String keys, Iterator<? extends Map<String, Object>> dataList) {
+		String[] columnNames = StringUtils.split(columns, ",");
+		String[] keyNames = StringUtils.split(keys, ",");
+		if (columnNames.length != keyNames.length) {
+			throw new RuntimeException("常规导出时，数据列出Map中的Key数量不一致");
+		}
+		this.columns = columnNames;
+		this.keys = keyNames;
+		this.dataList = dataList == null ? Collections.emptyIterator() : dataList;
+	}
+
+	/**
+	 * 自定义表头名（使用，分割）和key导出，写出完成后关闭数据流
+	 *
+	 * @param columns 导出excel表头集合
+	 * @param keys 数据列Map中key集合
+	 * @param dataStream 数据流
+	 */
+	public DirectExport(String columns, String keys, Stream<? extends Map<String, Object>> dataStream) {
+		this(columns, keys, dataStream.iterator());
+		this.dataStream = dataStream;
+	}
+
+	/**
+	 * 通过类注解@ExcelField导出，数据可以是key为属性名的Map或clazz的实体
+	 *
+	 * @param clazz
+	 * @param dataList
+	 */
+	public DirectExport(Class<?> clazz, List<?> dataList) {
+		this(clazz, dataList == null ? null : dataList.iterator());
+	}
+
+	/**
+	 * 通过类注解@ExcelField导出，数据可以是Map或实体
+	 *
+	 * @param clazz
+	 * @param dataList 数据迭代器
+	 */
+	public DirectExport(Class<?> clazz, Iterator<?> dataList) {
+		this.schema = ExcelSchema.of(clazz);
+		this.dataList = dataList == null ? Collections.emptyIterator() : dataList;
+	}
+
+	/**
+	 * 通过类注解@ExcelField导出，写出完成后关闭数据流
+	 *
+	 * @param clazz
+	 * @param dataStream 数据流
+	 */
+	public DirectExport(Class<?> clazz, Stream<?> dataStream) {
+		this(clazz, dataStream.iterator());
+		this.dataStream = dataStream;
+	}
+
+	/**
+	 * 输出数据流，不关闭输出流
+	 *
+	 * @param os
+	 *            输出数据流
+	 */
+	public DirectExport write(OutputStream os) throws IOException {
+		if (dataList == null) {
+			throw new RuntimeException("数据已写出，不能重复写出");
+		}
+		try {
+			XlsxStreamWriter writer = new XlsxStreamWriter(os);
+			if (schema == null) {
+				this.writeKeys(writer);
+			} else {
+				this.writeSchema(writer);
+			}
+			writer.finish();
+		} finally {
+			dataList = null;
+			if (dataStream != null) {
+				dataStream.close();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 输出到客户端
+	 *
+	 * @param fileName
+	 *            输出文件名
+	 */
+	public DirectExport write(HttpServletResponse response, String fileName) throws IOException {
+		response.reset();
+		response.setContentType("application/octet-stream; charset=utf-8");
+		response.setHeader("Content-Disposition", "attachment; filename=\"" + java.net.URLEncoder.encode(fileName, "utf-8") + "\"");
+		this.write(response.getOutputStream());
+		return this;
+	}
+
+	/**
+	 * 输出到文件（文件必须为xlsx格式）
+	 *
+	 * @param filePath
+	 *            输出文件名
+	 */
+	public DirectExport write(String filePath) throws IOException {
+		try (FileOutputStream os = new FileOutputStream(filePath)) {
+			this.write(os);
+		}
+		return this;
+	}
+
+	/**
+	 * 自定义表头导出：首行空白，第0列为空白列，多级表头合并，数据从第1列开始
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeKeys(XlsxStreamWriter writer) throws IOException {
+		Map<?, ?> first = dataList.hasNext() ? (Map<?, ?>) dataList.next() : null;
+		writer.setColumnWidth(0, 2 * 256);
+		if (first != null) {
+			for (int i = 0; i < keys.length; i++) {
+				Object value = first.get(keys[i]);
+				if (value != null) {
+					this.setColumnWidth(writer, i + 1, value.getClass());
+				}
+			}
+		}
+
+		// 创建第一行空白行
+		writer.startRow(14);
+		// 创建列头
+		ExcelHeader header = new ExcelHeader(this.columns);
+		int startRow = writer.getRownum() + 1;
+		for (Map<Integer, String> xCells : header.getRows()) {
+			writer.startRow();
+			writer.addBlankCell(0, XlsxStreamWriter.STYLE_BLANK);
+			for (Map.Entry<Integer, String> entry : xCells.entrySet()) {
+				writer.addTextCell(entry.getKey(), XlsxStreamWriter.STYLE_HEADER, entry.getValue());
+			}
+		}
+		for (CellRangeAddress region : header.getMergedRegions(startRow)) {
+			writer.addMergedRegion(region);
+		}
+
+		// 循环写入数据
+		for (Map<?, ?> data = first; data != null; data = dataList.hasNext() ? (Map<?, ?>) dataList.next() : null) {
+			writer.startRow();
+			writer.addBlankCell(0, XlsxStreamWriter.STYLE_BLANK);
+			for (int i = 0; i < keys.length; i++) {
+				writer.addCell(i + 1, data.get(keys[i]));
+			}
+		}
+	}
+
+	/**
+	 * 注解导出：首行为表头，单元格按列的排序位置写入
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeSchema(XlsxStreamWriter writer) throws IOException {
+		List<ExcelColumn> excelColumns = schema.getColumns();
+		boolean hasFirst = dataList.hasNext();
+		Object first = hasFirst ? dataList.next() : null;
+		for (ExcelColumn column : excelColumns) {
+			Class<?> type = column.getField().getType();
+			if (!CellWriter.isTyped(type) && first != null) {
+				// 按第一行的值确定
+				Object value = this.getValue(first, column);
+				type = value == null ? type : value.getClass();
+			}
+			this.setColumnWidth(writer, column.getIndex(), type);
+		}
+
+		writer.startRow();
+		for (ExcelColumn column : excelColumns) {
+			writer.addTextCell(column.getIndex(), XlsxStreamWriter.STYLE_HEADER, column.getColumnName());
+		}
+		if (hasFirst) {
+			this.writeRow(writer, excelColumns, first);
+		}
+		while (dataList.hasNext()) {
+			this.writeRow(writer, excelColumns, dataList.next());
+		}
+	}
+
+	private void writeRow(XlsxStreamWriter writer, List<ExcelColumn> excelColumns, Object data) throws IOException {
+		writer.startRow();
+		if (data != null) {
+			for (ExcelColumn column : excelColumns) {
+				writer.addCell(column.getIndex(), this.getValue(data, column));
+			}
+		}
+	}
+
+	/**
+	 * 读取Map或实体的属性值，实体通过编译后的getter读取
+	 */
+	private Object getValue(Object data, ExcelColumn column) {
+		if (data instanceof Map) {
+			return ((Map<?, ?>) data).get(column.getName());
+		}
+		if (getters == null) {
+			getters = schema.getGetters();
+		}
+		Function<Object, Object> getter = getters.get(column.getIndex());
+		return getter == null ? null : getter.apply(data);
+	}
+
+	/**
+	 * 日期列设置列宽，与ExcelExport.setColumnWidth()的换算一致
+	 */
+	private void setColumnWidth(XlsxStreamWriter writer, int column, Class<?> type) {
+		double width = CellWriter.width(type);
+		if (width > 0) {
+			writer.setColumnWidth(column, (int) (width * 256 + 184));
+		}
+	}
+}
@@ -1,24 +1,32 @@
 package cn.excel.export;
 
-import cn.excel.ExcelField;
-import org.apache.commons.lang.ArrayUtils;
-import org.apache.commons.lang.ObjectUtils;
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
 import org.apache.commons.lang.StringUtils;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * MapList/ModelList导出成为Excel 2017版本，需要指定后缀为xlsx <br/>
  * ExcelExport export = new ExcelExport(columnNames, keys, dataList); <br/>
- * export.write(respose, "test.xlsx");
+ * export.write(respose, "test.xlsx"); <br/>
+ * 数据量大时传入Iterator、Stream或{@link KeysetIterator}，边读取边写入，内存中只保留SXSSF窗口内的行 <br/>
+ * 数据库查询可直接传入ResultSet或DataSource和SQL，不需要先转换为Map
  * 
  * @author yutyi
  *
@@ -40,6 +48,21 @@ public class ExcelExport {
 	 */
 	private Map<String, CellStyle> styles;
 
+	/**
+	 * 通用单元格写入器，按值的类型选择格式
+	 */
+	private CellWriter cellWriter;
+
+	/**
+	 * 各列的单元格写入器，下标为列号，类型未确定时为null
+	 */
+	private CellWriter[] writers;
+
+	/**
+	 * 已设置列宽的列
+	 */
+	private final BitSet sizedColumns = new BitSet();
+
 	/**
 	 * 当前行号(0-based)
 	 */
@@ -56,14 +79,14 @@ public class ExcelExport {
 	private String[] keys;
 
 	/**
-	 * 数据集合
+	 * 数据，写入时逐行读取；注解导出时可以是Map或实体
 	 */
-	private List<Map<String, Object>> dataList;
+	private Iterator<?> dataList;
 
     /**
-     * 注解@ExcelField属性集合
+     * 注解@ExcelField列定义
      */
-	private List<Object[]> annotationList;
+	private ExcelSchema schema;
 
 	/**
 	 * 自定义表头名（使用，分割）和key导出
@@ -73,6 +96,17 @@ public class ExcelExport {
 	 * @param dataList 数据集合
 	 */
 	public ExcelExport(String columns, String keys, List<Map<String, Object>> dataList) {
+		this(columns, keys, dataList == null ? null : dataList.iterator());
+	}
+
+	/**
+	 * 自定义表头名（使用，分割）和key导出，数据边读取边写入
+	 *
+	 * @param columns 导出excel表头集合
+	 * @param keys 数据列Map中key集合
+	 * @param dataList 数据迭代器
+	 */
+	public ExcelExport(String columns, String keys, Iterator<? extends Map<String, Object>> dataList) {
 		String[] columnNames = StringUtils.split(columns, ",");
 		String[] keyNames = StringUtils.split(keys, ",");
 		if (columnNames.length != keyNames.length) {
@@ -80,78 +114,248 @@ public class ExcelExport {
 		}
 		this.columns = columnNames;
 		this.keys = keyNames;
-		this.dataList = dataList;
+		this.dataList = dataList == null ? Collections.emptyIterator() : dataList;
 
 		this.initialize();
 	}
 
+	/**
+	 * 自定义表头名（使用，分割）和key导出，写入完成后关闭数据流
+	 *
+	 * @param columns 导出excel表头集合
+	 * @param keys 数据列Map中key集合
+	 * @param dataStream 数据流
+	 */
+	public ExcelExport(String columns, String keys, Stream<? extends Map<String, Object>> dataStream) {
+		try (Stream<? extends Map<String, Object>> stream = dataStream) {
+			this.dataList = stream.iterator();
+			String[] columnNames = StringUtils.split(columns, ",");
+			String[] keyNames = StringUtils.split(keys, ",");
+			if (columnNames.length != keyNames.length) {
+				throw new RuntimeException("常规导出时，数据列出Map中的Key数量不一致");
+			}
+			this.columns = columnNames;
+			this.keys = keyNames;
+			this.initialize();
+		}
+	}
+
     /**
-     * 通过类注解@ExcelField导出
+     * 通过类注解@ExcelField导出，数据可以是key为属性名的Map或clazz的实体，实体通过编译后的getter读取属性
      *
      * @param clazz
      * @param dataList
      */
-	public ExcelExport(Class clazz,List<Map<String,Object>> dataList) {
-        this.dataList = dataList;
+	public ExcelExport(Class<?> clazz,List<?> dataList) {
+        this(clazz, dataList == null ? null : dataList.iterator());
+    }
+
+    /**
+     * 通过类注解@ExcelField导出，数据边读取边写入，数据可以是Map或实体
+     *
+     * @param clazz
+     * @param dataList 数据迭代器
+     */
+    public ExcelExport(Class<?> clazz, Iterator<?> dataList) {
+        this.dataList = dataList == null ? Collections.emptyIterator() : dataList;
         this.initialize(clazz);
     }
 
+    /**
+     * 通过类注解@ExcelField导出，写入完成后关闭数据流，数据可以是Map或实体
+     *
+     * @param clazz
+     * @param dataStream 数据流
+     */
+    public ExcelExport(Class<?> clazz, Stream<?> dataStream) {
+        try (Stream<?> stream = dataStream) {
+            this.dataList = stream.iterator();
+            this.initialize(clazz);
+        }
+    }
+
+    /**
+     * 查询结果导出，表头为查询列的别名，单元格格式按列类型确定<br/>
+     * 从ResultSet当前位置读取到末尾，ResultSet由调用方关闭
+     *
+     * @param rs 查询结果
+     */
+    public ExcelExport(ResultSet rs) {
+        this(null, rs);
+    }
+
+    /**
+     * 查询结果导出，自定义表头名（使用，分割），按顺序对应查询列<br/>
+     * 从ResultSet当前位置读取到末尾，ResultSet由调用方关闭
+     *
+     * @param columns 导出excel表头集合，为空时使用查询列的别名
+     * @param rs 查询结果
+     */
+    public ExcelExport(String columns, ResultSet rs) {
+        this.columns = StringUtils.isBlank(columns) ? null : StringUtils.split(columns, ",");
+        this.dataList = Collections.emptyIterator();
+        try {
+            this.initialize(rs);
+        } catch (SQLException ex) {
+            throw new RuntimeException("读取导出数据失败", ex);
+        }
+    }
+
+    /**
+     * 执行查询并导出，边查询边写入，表头为查询列的别名<br/>
+     * fetchSize控制每次从数据库取回的行数；PostgreSQL只在非自动提交时按fetchSize分批取回，查询期间会临时关闭自动提交；<br/>
+     * MySQL需要fetchSize为Integer.MIN_VALUE或连接参数useCursorFetch=true
+     *
+     * @param dataSource 数据源
+     * @param sql 查询语句
+     * @param fetchSize 每次取回的行数
+     * @param params 查询参数
+     */
+    public ExcelExport(DataSource dataSource, String sql, int fetchSize, Object... params) {
+        this.dataList = Collections.emptyIterator();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    this.initialize(rs);
+                }
+            } finally {
+                if (autoCommit) {
+                    // 只读查询，回滚后恢复连接状态再归还连接池
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("读取导出数据失败", ex);
+        }
+    }
+
     /**
      * 初始化Excel
      */
 	private void initialize() {
-		this.wb = new SXSSFWorkbook(500);
-		this.sheet = wb.createSheet("Sheet1");
-		this.styles = createStyles(wb);
-		// 创建第一行空白行
-		Row firstRow = sheet.createRow(rownum++);
-		firstRow.setHeightInPoints(14);
-
-		// 创建列头
-		new ExcelHeader(this.columns).create();
-		sheet.setColumnWidth(0, 2 * 256);
+		this.createSheet();
+		// 列类型由第一个非空值确定
+		this.writers = new CellWriter[this.keys.length + 1];
 
 		// 循环写入数据
-		for (Map<String, Object> data : dataList) {
+		while (dataList.hasNext()) {
+			Map<?, ?> data = (Map<?, ?>) dataList.next();
 			Row dataRow = sheet.createRow(rownum++);
 			this.addBlankCell(dataRow);
 			int cellIndex = 1;
 			for (String key : this.keys) {
 				Object value = data.get(key);
-				this.addCell(dataRow, cellIndex++, value);
+				this.writeCell(dataRow, cellIndex++, value);
 			}
 		}
 	}
 
+    /**
+     * 查询结果初始化Excel，每列按类型创建写入器，逐行从ResultSet写入单元格
+     *
+     * @param rs
+     * @throws SQLException
+     */
+    private void initialize(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        if (this.columns == null) {
+            this.columns = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                this.columns[i] = metaData.getColumnLabel(i + 1);
+            }
+        } else if (this.columns.length != columnCount) {
+            throw new RuntimeException("导出表头数量与查询结果列数不一致");
+        }
+        this.createSheet();
+
+        JdbcCellWriter[] writers = new JdbcCellWriter[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            int sqlType = metaData.getColumnType(i + 1);
+            writers[i] = JdbcCellWriter.forType(sqlType, metaData.getScale(i + 1), styles);
+            double width = JdbcCellWriter.width(sqlType);
+            if (width > 0) {
+                this.setColumnWidth(i + 1, width);
+            }
+        }
+        while (rs.next()) {
+            Row dataRow = sheet.createRow(rownum++);
+            this.addBlankCell(dataRow);
+            for (int i = 0; i < columnCount; i++) {
+                writers[i].write(dataRow.createCell(i + 1), rs, i + 1);
+            }
+        }
+    }
+
+    /**
+     * 创建工作表、空白首行和列头
+     */
+    private void createSheet() {
+		this.wb = new SXSSFWorkbook(500);
+		this.sheet = wb.createSheet("Sheet1");
+		this.styles = createStyles(wb);
+		this.cellWriter = CellWriter.generic(styles);
+		// 创建第一行空白行
+		Row firstRow = sheet.createRow(rownum++);
+		firstRow.setHeightInPoints(14);
+
+		// 创建列头
+		this.createHeader(new ExcelHeader(this.columns));
+		sheet.setColumnWidth(0, 2 * 256);
+	}
+
+    /**
+     * 创建多级列头并合并单元格
+     *
+     * @param header
+     */
+    private void createHeader(ExcelHeader header) {
+        int startRow = rownum;
+        for (Map<Integer, String> xCells : header.getRows()) {
+            Row row = addRow();
+            addBlankCell(row);
+            for (Map.Entry<Integer, String> entry : xCells.entrySet()) {
+                Cell cell = row.createCell(entry.getKey());
+                cell.setCellValue(entry.getValue());
+                cell.setCellStyle(styles.get("header"));
+            }
+        }
+        for (CellRangeAddress region : header.getMergedRegions(startRow)) {
+            addMergedRegion(region);
+        }
+    }
+
     /**
      * 注解类初始化Excel
      * @param clazz
      */
-    private void initialize(Class clazz) {
+    private void initialize(Class<?> clazz) {
         this.wb = new SXSSFWorkbook(500);
         this.sheet = wb.createSheet("Sheet1");
         this.styles = createStyles(wb);
-        annotationList = new ArrayList<>();
-        Field[] fields = clazz.getDeclaredFields();
-
-        //添加注解@ExcelField的属性
-        for (Field field : fields) {
-            ExcelField excelField = field.getAnnotation(ExcelField.class);
-            if (excelField != null) {
-                annotationList.add(new Object[]{field,excelField});
-            }
-        }
-
-        //通过注解排序
-        if (annotationList !=null && annotationList.size()>0) {
-            annotationList.sort((o1, o2) -> ((ExcelField) o1[1]).sort() < ((ExcelField) o2[1]).sort() ? 1:0);
+        this.cellWriter = CellWriter.generic(styles);
+        //已按注解排序的列定义
+        this.schema = ExcelSchema.of(clazz);
+
+        //按属性类型创建写入器，Object等类型由第一个非空值确定
+        this.writers = new CellWriter[schema.size()];
+        for (ExcelColumn column : schema.getColumns()) {
+            this.resolveWriter(column.getIndex(), column.getField().getType());
         }
 
         //表头集合
         List<String> headList = new ArrayList<>();
-        for (Object[] obj : annotationList) {
-            ExcelField excelField = (ExcelField) obj[1];
-            headList.add(excelField.columnName());
+        for (ExcelColumn column : schema.getColumns()) {
+            headList.add(column.getColumnName());
         }
 
         createHead(headList);
@@ -174,16 +378,27 @@ public class ExcelExport {
     }
 
     /**
-     * 设置数据
+     * 设置数据，单元格按列的排序位置写入，与表头对应
      */
     public void setDataList() {
-        if (dataList != null && dataList.size() > 0 ) {
-            for (int column = 0; column < dataList.size(); column++) {
-                //填充数据
-                Row row = this.sheet.createRow(rownum++);
-                for (int i = 0; i < annotationList.size(); i++) {
-                    Field field = (Field)annotationList.get(i)[0];
-                    addCell(row,column,dataList.get(column).get(field.getName()));
+        List<ExcelColumn> excelColumns = schema.getColumns();
+        List<Function<Object, Object>> getters = null;
+        while (dataList.hasNext()) {
+            Object data = dataList.next();
+            //填充数据
+            Row row = this.sheet.createRow(rownum++);
+            if (data instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) data;
+                for (ExcelColumn excelColumn : excelColumns) {
+                    writeCell(row, excelColumn.getIndex(), map.get(excelColumn.getName()));
+                }
+            } else if (data != null) {
+                if (getters == null) {
+                    getters = schema.getGetters();
+                }
+                for (int i = 0; i < getters.size(); i++) {
+                    Function<Object, Object> getter = getters.get(i);
+                    writeCell(row, i, getter == null ? null : getter.apply(data));
                 }
             }
         }
@@ -218,54 +433,66 @@ public class ExcelExport {
 	}
 
 	/**
-	 * 添加单元格并填充数据
+	 * 添加单元格并填充数据，按值的类型选择格式
 	 * 
 	 * @param row
 	 * @param cellIndex
 	 * @param cellValue
 	 */
 	public void addCell(Row row, int cellIndex, Object cellValue) {
-		Cell cell = row.createCell(cellIndex);
-		cell.setCellStyle(styles.get("data_auto"));
+		cellWriter.write(row.createCell(cellIndex), cellValue);
 		if (cellValue != null) {
-			if (cellValue instanceof java.sql.Date) {
-				cell.setCellValue((Date) cellValue);
-				cell.setCellStyle(styles.get("data_date"));
-				this.setColumnWidth(cellIndex, 9);
-			} else if (cellValue instanceof java.sql.Time) {
-				cell.setCellValue((Date) cellValue);
-				cell.setCellStyle(styles.get("data_time"));
-				this.setColumnWidth(cellIndex, 9);
-			} else if (cellValue instanceof java.util.Date) {
-				cell.setCellValue((Date) cellValue);
-				cell.setCellStyle(styles.get("data_datetime"));
-				this.setColumnWidth(cellIndex, 16);
-			} else if (cellValue instanceof Calendar) {
-				cell.setCellValue((Calendar) cellValue);
-			} else if (cellValue instanceof Boolean) {
-				cell.setCellValue((Boolean) cellValue);
-			} else if (cellValue instanceof Short) {
-                cell.setCellStyle(styles.get("data_number"));
-				cell.setCellValue((Short) cellValue);
-			} else if (cellValue instanceof Integer) {
-                cell.setCellStyle(styles.get("data_number"));
-			    cell.setCellValue((Integer) cellValue);
-			} else if (cellValue instanceof Long) {
-				cell.setCellStyle(styles.get("data_number"));
-				cell.setCellValue((Long) cellValue);
-			} else if (cellValue instanceof Float) {
-                cell.setCellStyle(styles.get("data_decimal"));
-				cell.setCellValue((Float) cellValue);
-			} else if (cellValue instanceof Double) {
-                cell.setCellStyle(styles.get("data_decimal"));
-				cell.setCellValue((Double) cellValue);
-			} else {
-				String strValue = ObjectUtils.toString(cellValue);
-				cell.setCellValue(strValue);
-				if(strValue.length() > 20){
-					cell.setCellStyle(styles.get("data_string"));
-				}
-			}
+			this.sizeColumn(cellIndex, cellValue.getClass());
+		}
+	}
+
+	/**
+	 * 使用列的写入器添加数据单元格，列类型未确定时由第一个非空值确定
+	 *
+	 * @param row
+	 * @param cellIndex
+	 * @param cellValue
+	 */
+	private void writeCell(Row row, int cellIndex, Object cellValue) {
+		CellWriter writer = writers[cellIndex];
+		if (writer == null && cellValue != null) {
+			writer = this.resolveWriter(cellIndex, cellValue.getClass());
+		}
+		(writer == null ? cellWriter : writer).write(row.createCell(cellIndex), cellValue);
+	}
+
+	/**
+	 * 创建列的写入器并设置列宽
+	 *
+	 * @param cellIndex
+	 * @param type
+	 *            属性类型或值的类型
+	 * @return 无法按类型确定格式时返回null
+	 */
+	private CellWriter resolveWriter(int cellIndex, Class<?> type) {
+		// 与列类型不一致的值按值的类型写入，日期值同样设置列宽
+		CellWriter writer = CellWriter.forType(type, styles, (cell, value) -> {
+			cellWriter.write(cell, value);
+			this.sizeColumn(cellIndex, value.getClass());
+		});
+		if (writer != null) {
+			writers[cellIndex] = writer;
+			this.sizeColumn(cellIndex, type);
+		}
+		return writer;
+	}
+
+	/**
+	 * 日期列设置列宽，每列只设置一次
+	 *
+	 * @param cellIndex
+	 * @param type
+	 */
+	private void sizeColumn(int cellIndex, Class<?> type) {
+		double width = CellWriter.width(type);
+		if (width > 0 && !sizedColumns.get(cellIndex)) {
+			sizedColumns.set(cellIndex);
+			this.setColumnWidth(cellIndex, width);
 		}
 	}
 
@@ -415,189 +642,4 @@ public class ExcelExport {
         this.write(os);
         return this;
     }
-
-	/**
-	 * Excel标题分析类，支持水平和垂直合并
-	 * 
-	 * @author zhengwenquan
-	 *
-	 */
-	class ExcelHeader {
-		private List<String> headerList;
-		private Map<Integer, Row> rows = new HashMap<>(15);
-		private List<Map<Integer, String>> multiRows = new ArrayList<>(10);
-		private List<List<String>> multiColumns = new ArrayList<>(5);
-		private Map<String, Integer[]> merges = new HashMap<>(5);
-		// private Map<Integer, Boolean> comments = new HashMap<>();
-
-		public ExcelHeader(List<String> headerList) {
-			this.headerList = headerList;
-		}
-
-		public ExcelHeader(String[] headers) {
-			this.headerList = Arrays.asList(headers);
-		}
-
-		public void create() {
-		    //分析
-			this.analyze();
-			//创建单元格
-			this.createCell();
-			//水平合并
-			this.horizontalMarge();
-			//垂直合并
-			this.verticalMarge();
-
-			this.mergeRegion();
-		}
-
-		private void analyze() {
-			for (int column = 1; column <= headerList.size(); column++) {
-				String[] ss = StringUtils.split(headerList.get(column - 1), "#");
-				// comments.put(column, ss.length == 1); // 首行显示批注
-				ArrayUtils.reverse(ss);
-				multiColumns.add(new ArrayList<>(Arrays.asList(ss)));
-				for (int row = 0; row < ss.length; row++) {
-					String text = ss[row];
-					Map<Integer, String> xCells = multiRows.size() <= row ? new HashMap<>() : multiRows.get(row);
-					xCells.put(column, text);
-					if (multiRows.size() <= row) {
-						multiRows.add(xCells);
-					}
-				}
-			}
-
-			// 向空白区域设置值
-			int rowCount = multiRows.size();
-			for (int column = 1; column <= multiColumns.size(); column++) {
-				List<String> columns = multiColumns.get(column - 1);
-				if (columns.size() < rowCount) {
-					String lastValue = columns.get(columns.size() - 1);
-					for (int i = columns.size(); i < rowCount; i++) {
-						multiRows.get(i).put(column, lastValue);
-						columns.add(lastValue);
-					}
-				}
-				Collections.reverse(columns);
-			}
-			// 反转集合
-			Collections.reverse(multiRows);
-		}
-
-		/**
-		 * 填充单元格内容
-		 */
-		private void createCell() {
-			for (int i = 0; i < multiRows.size(); i++) {
-				Map<Integer, String> xCells = multiRows.get(i);
-				Row row = addRow();
-				rows.put(i, row);
-				addBlankCell(row);
-				for (Map.Entry<Integer, String> entry : xCells.entrySet()) {
-					int column = entry.getKey();
-					Cell cell = row.createCell(column);
-					cell.setCellValue(entry.getValue());
-					cell.setCellStyle(styles.get("header"));
-				}
-			}
-		}
-
-		/**
-		 * 水平合并分析
-		 */
-		private void horizontalMarge() {
-			int rowCount = multiRows.size();
-			int columnCount = multiColumns.size();
-			int startRow = rownum - rowCount;
-			for (int row = rowCount - 1; row >= 0; row--) {
-				int firstRow = startRow + row;
-				int lastRow = startRow + row;
-				int firstCol = 1;
-				int lastCol = 1;
-				String value = null;
-				for (int column = 1; column <= columnCount; column++) {
-					List<String> columns = multiColumns.get(column - 1);
-					if (column == 1) {
-						value = columns.get(row);
-						continue;
-					}
-					if (columns.get(row).equals(value)) {
-						lastCol = column;
-						multiRows.get(row).put(column, "*");
-					} else {
-						value = columns.get(row);
-						if (firstCol != lastCol) {
-							Integer[] addr = merges.get((firstRow + 1) + ":" + firstCol);
-							if (addr != null && addr[3] == lastCol) {
-								lastRow = addr[1];
-								merges.remove((firstRow + 1) + ":" + firstCol);
-							}
-							merges.put(firstRow + ":" + firstCol, new Integer[] { firstRow, lastRow, firstCol, lastCol });
-						}
-						firstCol = column;
-						lastCol = firstCol;
-						lastRow = firstRow;
-					}
-					if (column == columnCount && firstCol != lastCol) {
-						Integer[] addr = merges.get((firstRow + 1) + ":" + firstCol);
-						if (addr != null && addr[3] == lastCol) {
-							lastRow = addr[1];
-							merges.remove((firstRow + 1) + ":" + firstCol);
-						}
-						merges.put(firstRow + ":" + firstCol, new Integer[] { firstRow, lastRow, firstCol, lastCol });
-					}
-				}
-			}
-		}
-
-		/**
-		 * 垂直合并分析
-		 */
-		private void verticalMarge() {
-			int rowCount = multiRows.size();
-			int columnCount = multiColumns.size();
-			int startRow = rownum - rowCount;
-			for (int column = 1; column <= columnCount; column++) {
-				int firstCol = column;
-				int lastCol = column;
-				int firstRow = startRow;
-				int lastRow = startRow;
-				String value = null;
-				for (int row = 0; row < rowCount; row++) {
-					Map<Integer, String> rows = multiRows.get(row);
-					if (row == 0) {
-						value = rows.get(column);
-						continue;
-					}
-					if (!"*".equals(value) && rows.get(column).equals(value)) {
-						lastRow = startRow + row;
-					} else {
-						if (!value.equals("*") && firstRow != lastRow) {
-							Integer[] addr = merges.get(firstRow + ":" + firstCol);
-							if (addr == null || lastRow != addr[1]) {
-								addr = new Integer[] { firstRow, lastRow, firstCol, lastCol };
-							}
-							merges.put(firstRow + ":" + firstCol, addr);
-						}
-						value = rows.get(column);
-						firstRow = startRow + row;
-						lastRow = firstRow;
-					}
-					if (row == rowCount - 1 && firstRow != lastRow) {
-						Integer[] addr = merges.get(firstRow + ":" + firstCol);
-						if (addr == null || lastRow != addr[1]) {
-							addr = new Integer[] { firstRow, lastRow, firstCol, lastCol };
-						}
-						merges.put(firstRow + ":" + firstCol, addr);
-					}
-				}
-			}
-		}
-
-		private void mergeRegion() {
-			for (Integer[] addr : merges.values()) {
-				addMergedRegion(new CellRangeAddress(addr[0], addr[1], addr[2], addr[3]));
-			}
-		}
-	}
 }
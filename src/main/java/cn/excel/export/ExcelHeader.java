@@ -0,0 +1,198 @@
+package cn.excel.export;
+
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Excel标题分析类，支持水平和垂直合并<br/>
+ * 表头名使用#分隔多级标题，列从1开始(第0列为空白列)
+ * 
+ * @author zhengwenquan
+ *
+ */
+class ExcelHeader {
+	private List<String> headerList;
+	/**
+	 * 各行标题，合并分析前的副本
+	 */
+	private List<Map<Integer, String>> headerRows = new ArrayList<>(10);
+	private List<Map<Integer, String>> multiRows = new ArrayList<>(10);
+	private List<List<String>> multiColumns = new ArrayList<>(5);
+	private Map<String, Integer[]> merges = new HashMap<>(5);
+	// private Map<Integer, Boolean> comments = new HashMap<>();
+
+	public ExcelHeader(List<String> headerList) {
+		this.headerList = headerList;
+		//分析
+		this.analyze();
+	}
+
+	public ExcelHeader(String[] headers) {
+		this(Arrays.asList(headers));
+	}
+
+	/**
+	 * 各行标题
+	 *
+	 * @return key为列号(按升序)，value为标题
+	 */
+	public List<Map<Integer, String>> getRows() {
+		return headerRows;
+	}
+
+	/**
+	 * 计算合并区域，只能调用一次
+	 *
+	 * @param startRow
+	 *            第一行标题的行号
+	 * @return
+	 */
+	public List<CellRangeAddress> getMergedRegions(int startRow) {
+		//水平合并
+		this.horizontalMarge(startRow);
+		//垂直合并
+		this.verticalMarge(startRow);
+
+		List<CellRangeAddress> regions = new ArrayList<>(merges.size());
+		for (Integer[] addr : merges.values()) {
+			regions.add(new CellRangeAddress(addr[0], addr[1], addr[2], addr[3]));
+		}
+		return regions;
+	}
+
+	private void analyze() {
+		for (int column = 1; column <= headerList.size(); column++) {
+			String[] ss = StringUtils.split(headerList.get(column - 1), "#");
+			// comments.put(column, ss.length == 1); // 首行显示批注
+			ArrayUtils.reverse(ss);
+			multiColumns.add(new ArrayList<>(Arrays.asList(ss)));
+			for (int row = 0; row < ss.length; row++) {
+				String text = ss[row];
+				Map<Integer, String> xCells = multiRows.size() <= row ? new HashMap<>() : multiRows.get(row);
+				xCells.put(column, text);
+				if (multiRows.size() <= row) {
+					multiRows.add(xCells);
+				}
+			}
+		}
+
+		// 向空白区域设置值
+		int rowCount = multiRows.size();
+		for (int column = 1; column <= multiColumns.size(); column++) {
+			List<String> columns = multiColumns.get(column - 1);
+			if (columns.size() < rowCount) {
+				String lastValue = columns.get(columns.size() - 1);
+				for (int i = columns.size(); i < rowCount; i++) {
+					multiRows.get(i).put(column, lastValue);
+					columns.add(lastValue);
+				}
+			}
+			Collections.reverse(columns);
+		}
+		// 反转集合
+		Collections.reverse(multiRows);
+		for (Map<Integer, String> xCells : multiRows) {
+			headerRows.add(Collections.unmodifiableMap(new TreeMap<>(xCells)));
+		}
+		headerRows = Collections.unmodifiableList(headerRows);
+	}
+
+	/**
+	 * 水平合并分析
+	 */
+	private void horizontalMarge(int startRow) {
+		int rowCount = multiRows.size();
+		int columnCount = multiColumns.size();
+		for (int row = rowCount - 1; row >= 0; row--) {
+			int firstRow = startRow + row;
+			int lastRow = startRow + row;
+			int firstCol = 1;
+			int lastCol = 1;
+			String value = null;
+			for (int column = 1; column <= columnCount; column++) {
+				List<String> columns = multiColumns.get(column - 1);
+				if (column == 1) {
+					value = columns.get(row);
+					continue;
+				}
+				if (columns.get(row).equals(value)) {
+					lastCol = column;
+					multiRows.get(row).put(column, "*");
+				} else {
+					value = columns.get(row);
+					if (firstCol != lastCol) {
+						Integer[] addr = merges.get((firstRow + 1) + ":" + firstCol);
+						if (addr != null && addr[3] == lastCol) {
+							lastRow = addr[1];
+							merges.remove((firstRow + 1) + ":" + firstCol);
+						}
+						merges.put(firstRow + ":" + firstCol, new Integer[] { firstRow, lastRow, firstCol, lastCol });
+					}
+					firstCol = column;
+					lastCol = firstCol;
+					lastRow = firstRow;
+				}
+				if (column == columnCount && firstCol != lastCol) {
+					Integer[] addr = merges.get((firstRow + 1) + ":" + firstCol);
+					if (addr != null && addr[3] == lastCol) {
+						lastRow = addr[1];
+						merges.remove((firstRow + 1) + ":" + firstCol);
+					}
+					merges.put(firstRow + ":" + firstCol, new Integer[] { firstRow, lastRow, firstCol, lastCol });
+				}
+			}
+		}
+	}
+
+	/**
+	 * 垂直合并分析
+	 */
+	private void verticalMarge(int startRow) {
+		int rowCount = multiRows.size();
+		int columnCount = multiColumns.size();
+		for (int column = 1; column <= columnCount; column++) {
+			int firstCol = column;
+			int lastCol = column;
+			int firstRow = startRow;
+			int lastRow = startRow;
+			String value = null;
+			for (int row = 0; row < rowCount; row++) {
+				Map<Integer, String> rows = multiRows.get(row);
+				if (row == 0) {
+					value = rows.get(column);
+					continue;
+				}
+				if (!"*".equals(value) && rows.get(column).equals(value)) {
+					lastRow = startRow + row;
+				} else {
+					if (!value.equals("*") && firstRow != lastRow) {
+						Integer[] addr = merges.get(firstRow + ":" + firstCol);
+						if (addr == null || lastRow != addr[1]) {
+							addr = new Integer[] { firstRow, lastRow, firstCol, lastCol };
+						}
+						merges.put(firstRow + ":" + firstCol, addr);
+					}
+					value = rows.get(column);
+					firstRow = startRow + row;
+					lastRow = firstRow;
+				}
+				if (row == rowCount - 1 && firstRow != lastRow) {
+					Integer[] addr = merges.get(firstRow + ":" + firstCol);
+					if (addr == null || lastRow != addr[1]) {
+						addr = new Integer[] { firstRow, lastRow, firstCol, lastCol };
+					}
+					merges.put(firstRow + ":" + firstCol, addr);
+				}
+			}
+		}
+	}
+}
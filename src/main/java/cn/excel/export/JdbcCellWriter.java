@@ -0,0 +1,191 @@
+package cn.excel.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+
+/**
+ * 按ResultSet列类型写入单元格，数值、日期直接按基本类型读取，不经过Map和装箱<br/>
+ * 每列在导出开始时根据ResultSetMetaData创建一次，样式预先绑定
+ *
+ * @author yutyi
+ */
+@FunctionalInterface
+interface JdbcCellWriter {
+
+	/**
+	 * 超过此位数的DECIMAL按文本写入，Excel数值只有15位有效数字
+	 */
+	int MAX_NUMBER_PRECISION = 15;
+
+	/**
+	 * 绝对值达到此值的整数超过15位，按文本写入
+	 */
+	long MAX_EXACT_LONG = 1_000_000_000_000_000L;
+
+	/**
+	 * 读取当前行的一列写入单元格
+	 *
+	 * @param cell
+	 * @param rs
+	 * @param column
+	 *            列号，从1开始
+	 * @throws SQLException
+	 */
+	void write(Cell cell, ResultSet rs, int column) throws SQLException;
+
+	/**
+	 * 创建列类型对应的写入器
+	 *
+	 * @param sqlType
+	 *            java.sql.Types
+	 * @param scale
+	 *            小数位数
+	 * @param styles
+	 *            样式列表
+	 * @return
+	 */
+	static JdbcCellWriter forType(int sqlType, int scale, Map<String, CellStyle> styles) {
+		CellStyle auto = styles.get("data_auto");
+		switch (sqlType) {
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return (cell, rs, column) -> {
+				boolean value = rs.getBoolean(column);
+				cell.setCellStyle(auto);
+				if (!rs.wasNull()) {
+					cell.setCellValue(value);
+				}
+			};
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT: {
+			CellStyle style = styles.get("data_number");
+			CellStyle text = styles.get("data_string");
+			return (cell, rs, column) -> {
+				long value = rs.getLong(column);
+				if (rs.wasNull()) {
+					cell.setCellStyle(auto);
+				} else if (value > -MAX_EXACT_LONG && value < MAX_EXACT_LONG) {
+					cell.setCellStyle(style);
+					cell.setCellValue(value);
+				} else {
+					cell.setCellStyle(text);
+					cell.setCellValue(Long.toString(value));
+				}
+			};
+		}
+		case Types.REAL:
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			return number(styles.get("data_decimal"), auto);
+		case Types.NUMERIC:
+		case Types.DECIMAL: {
+			// 未声明精度时(如Oracle NUMBER)小数位数为负数，按小数处理
+			CellStyle style = styles.get(scale == 0 ? "data_number" : "data_decimal");
+			CellStyle text = styles.get("data_string");
+			return (cell, rs, column) -> {
+				BigDecimal value = rs.getBigDecimal(column);
+				if (value == null) {
+					cell.setCellStyle(auto);
+				} else if (value.precision() <= MAX_NUMBER_PRECISION) {
+					cell.setCellStyle(style);
+					cell.setCellValue(value.doubleValue());
+				} else {
+					cell.setCellStyle(text);
+					cell.setCellValue(value.toPlainString());
+				}
+			};
+		}
+		case Types.DATE: {
+			CellStyle style = styles.get("data_date");
+			return (cell, rs, column) -> {
+				java.sql.Date value = rs.getDate(column);
+				if (value == null) {
+					cell.setCellStyle(auto);
+				} else {
+					cell.setCellStyle(style);
+					cell.setCellValue(value);
+				}
+			};
+		}
+		case Types.TIME:
+		case Types.TIME_WITH_TIMEZONE: {
+			CellStyle style = styles.get("data_time");
+			return (cell, rs, column) -> {
+				java.sql.Time value = rs.getTime(column);
+				if (value == null) {
+					cell.setCellStyle(auto);
+				} else {
+					cell.setCellStyle(style);
+					cell.setCellValue(value);
+				}
+			};
+		}
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE: {
+			CellStyle style = styles.get("data_datetime");
+			return (cell, rs, column) -> {
+				java.sql.Timestamp value = rs.getTimestamp(column);
+				if (value == null) {
+					cell.setCellStyle(auto);
+				} else {
+					cell.setCellStyle(style);
+					cell.setCellValue(value);
+				}
+			};
+		}
+		default: {
+			CellStyle text = styles.get("data_string");
+			return (cell, rs, column) -> {
+				String value = rs.getString(column);
+				cell.setCellStyle(value != null && value.length() > 20 ? text : auto);
+				if (value != null) {
+					cell.setCellValue(value);
+				}
+			};
+		}
+		}
+	}
+
+	/**
+	 * 浮点数列，按double读取
+	 */
+	static JdbcCellWriter number(CellStyle style, CellStyle auto) {
+		return (cell, rs, column) -> {
+			double value = rs.getDouble(column);
+			if (rs.wasNull()) {
+				cell.setCellStyle(auto);
+			} else {
+				cell.setCellStyle(style);
+				cell.setCellValue(value);
+			}
+		};
+	}
+
+	/**
+	 * 列类型对应的列宽，与addCell()中日期列的宽度一致
+	 *
+	 * @param sqlType
+	 * @return 不需要设置时返回0
+	 */
+	static double width(int sqlType) {
+		switch (sqlType) {
+		case Types.DATE:
+		case Types.TIME:
+		case Types.TIME_WITH_TIMEZONE:
+			return 9;
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return 16;
+		default:
+			return 0;
+		}
+	}
+}
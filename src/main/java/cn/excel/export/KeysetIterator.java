@@ -0,0 +1,106 @@
+package cn.excel.export;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * 按键分页读取数据的迭代器，当前页取完后以本页最后一行的键取下一页<br/>
+ * 键分页(WHERE id > ? ORDER BY id LIMIT ?)每页的查询代价相同，不像OFFSET分页越往后越慢；<br/>
+ * 内存中只保留一页数据，配合ExcelExport导出大量数据
+ *
+ * @author yutyi
+ */
+public class KeysetIterator<T, K> implements Iterator<T> {
+
+	private final int pageSize;
+
+	private final Function<T, K> keyOf;
+
+	private final PageFetcher<T, K> fetcher;
+
+	private Iterator<T> page = Collections.emptyIterator();
+
+	/**
+	 * 上一页最后一行的键，第一页为null
+	 */
+	private K lastKey;
+
+	/**
+	 * 是否已取到最后一页
+	 */
+	private boolean lastPage;
+
+	/**
+	 *
+	 * @param pageSize
+	 *            每页行数
+	 * @param keyOf
+	 *            获取行的键，键需与查询的排序一致
+	 * @param fetcher
+	 *            取一页数据
+	 */
+	public KeysetIterator(int pageSize, Function<T, K> keyOf, PageFetcher<T, K> fetcher) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize必须大于0");
+		}
+		this.pageSize = pageSize;
+		this.keyOf = keyOf;
+		this.fetcher = fetcher;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!page.hasNext()) {
+			if (lastPage) {
+				return false;
+			}
+			List<T> rows;
+			try {
+				rows = fetcher.fetch(lastKey, pageSize);
+			} catch (RuntimeException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				throw new RuntimeException("读取导出数据失败", ex);
+			}
+			if (rows == null || rows.isEmpty()) {
+				lastPage = true;
+				return false;
+			}
+			// 不足一页时不再查询
+			lastPage = rows.size() < pageSize;
+			lastKey = keyOf.apply(rows.get(rows.size() - 1));
+			page = rows.iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return page.next();
+	}
+
+	/**
+	 * 分页查询
+	 */
+	@FunctionalInterface
+	public interface PageFetcher<T, K> {
+
+		/**
+		 * 取一页数据
+		 *
+		 * @param lastKey
+		 *            上一页最后一行的键，第一页为null
+		 * @param pageSize
+		 *            每页行数
+		 * @return 键大于lastKey的前pageSize行，没有数据时返回空列表
+		 * @throws Exception
+		 */
+		List<T> fetch(K lastKey, int pageSize) throws Exception;
+	}
+}
@@ -0,0 +1,437 @@
+package cn.excel.export;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 直接生成xlsx(SpreadsheetML)的写出器，行数据边生成边写入ZipOutputStream，不使用临时文件，内存占用与行数无关<br/>
+ * 只包含一个工作表，样式与ExcelExport一致；文本使用内联字符串(inlineStr)，不生成共享字符串表<br/>
+ * 列宽需在第一行之前设置，合并区域在结束时写出；不关闭传入的输出流
+ *
+ * @author yutyi
+ */
+final class XlsxStreamWriter {
+
+	/**
+	 * 样式下标，与styles.xml中cellXfs的顺序一致
+	 */
+	static final int STYLE_BLANK = 1;
+
+	static final int STYLE_HEADER = 2;
+
+	static final int STYLE_AUTO = 3;
+
+	static final int STYLE_STRING = 4;
+
+	static final int STYLE_NUMBER = 5;
+
+	static final int STYLE_DECIMAL = 6;
+
+	static final int STYLE_DATE = 7;
+
+	static final int STYLE_DATETIME = 8;
+
+	static final int STYLE_TIME = 9;
+
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	private static final String CONTENT_TYPES = XML_HEADER
+			+ "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+			+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+			+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+			+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+			+ "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+			+ "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+			+ "</Types>";
+
+	private static final String ROOT_RELS = XML_HEADER
+			+ "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+			+ "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+			+ "</Relationships>";
+
+	private static final String WORKBOOK = XML_HEADER
+			+ "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+			+ "<sheets><sheet name=\"Sheet1\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+			+ "</workbook>";
+
+	private static final String WORKBOOK_RELS = XML_HEADER
+			+ "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+			+ "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+			+ "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>"
+			+ "</Relationships>";
+
+	/**
+	 * 与ExcelExport.createStyles()对应：字体依次为默认、空白列、表头、数据，数据样式带黑色细边框
+	 */
+	private static final String STYLES = XML_HEADER
+			+ "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+			+ "<numFmts count=\"3\">"
+			+ "<numFmt numFmtId=\"164\" formatCode=\"yyyy/MM/dd\"/>"
+			+ "<numFmt numFmtId=\"165\" formatCode=\"yyyy/MM/dd HH:mm:ss\"/>"
+			+ "<numFmt numFmtId=\"166\" formatCode=\"HH:mm:ss\"/>"
+			+ "</numFmts>"
+			+ "<fonts count=\"4\">"
+			+ "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+			+ "<font><sz val=\"16\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+			+ "<font><b/><sz val=\"10\"/><name val=\"Courier New\"/></font>"
+			+ "<font><sz val=\"10\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+			+ "</fonts>"
+			+ "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+			+ "<borders count=\"2\">"
+			+ "<border><left/><right/><top/><bottom/><diagonal/></border>"
+			+ "<border><left style=\"thin\"><color indexed=\"8\"/></left><right style=\"thin\"><color indexed=\"8\"/></right>"
+			+ "<top style=\"thin\"><color indexed=\"8\"/></top><bottom style=\"thin\"><color indexed=\"8\"/></bottom><diagonal/></border>"
+			+ "</borders>"
+			+ "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+			+ "<cellXfs count=\"10\">"
+			+ "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+			+ "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+			+ "<xf numFmtId=\"0\" fontId=\"2\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+			+ dataStyle(0, false)
+			+ dataStyle(0, true)
+			+ dataStyle(1, false)
+			+ dataStyle(2, false)
+			+ dataStyle(164, false)
+			+ dataStyle(165, false)
+			+ dataStyle(166, false)
+			+ "</cellXfs>"
+			+ "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+			+ "</styleSheet>";
+
+	/**
+	 * 文本超过此长度时使用自动换行样式，与CellWriter一致
+	 */
+	private static final int WRAP_LENGTH = CellWriter.WRAP_LENGTH;
+
+	private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+	private final ZipOutputStream zip;
+
+	private final Writer writer;
+
+	/**
+	 * 列宽(1/256个字符宽度)，key为列号
+	 */
+	private final Map<Integer, Integer> columnWidths = new TreeMap<>();
+
+	private final List<CellRangeAddress> mergedRegions = new ArrayList<>();
+
+	/**
+	 * 列名(A、B...)缓存，下标为列号
+	 */
+	private String[] columnNames = new String[16];
+
+	/**
+	 * 已写出的行数，当前行号为rownum - 1
+	 */
+	private int rownum;
+
+	private boolean started;
+
+	private boolean rowOpen;
+
+	private boolean finished;
+
+	/**
+	 * 写出静态部件(内容类型、关系、工作薄、样式)
+	 *
+	 * @param os
+	 *            输出流
+	 * @throws IOException
+	 */
+	XlsxStreamWriter(OutputStream os) throws IOException {
+		this.zip = new ZipOutputStream(os, StandardCharsets.UTF_8);
+		this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 65536);
+		this.part("[Content_Types].xml", CONTENT_TYPES);
+		this.part("_rels/.rels", ROOT_RELS);
+		this.part("xl/workbook.xml", WORKBOOK);
+		this.part("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+		this.part("xl/styles.xml", STYLES);
+	}
+
+	private static String dataStyle(int numFmtId, boolean wrapText) {
+		return "<xf numFmtId=\"" + numFmtId + "\" fontId=\"3\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\" applyAlignment=\"1\""
+				+ (numFmtId == 0 ? "" : " applyNumberFormat=\"1\"") + "><alignment vertical=\"center\"" + (wrapText ? " wrapText=\"1\"" : "") + "/></xf>";
+	}
+
+	private void part(String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		writer.write(content);
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	/**
+	 * 设置列宽，必须在第一行之前调用
+	 *
+	 * @param column
+	 *            列号
+	 * @param width
+	 *            1/256个字符宽度，与Sheet.setColumnWidth()相同
+	 */
+	void setColumnWidth(int column, int width) {
+		if (started) {
+			throw new IllegalStateException("列宽必须在写入数据行之前设置");
+		}
+		columnWidths.put(column, width);
+	}
+
+	/**
+	 * 添加合并区域
+	 *
+	 * @param region
+	 */
+	void addMergedRegion(CellRangeAddress region) {
+		mergedRegions.add(region);
+	}
+
+	/**
+	 * 开始新的一行
+	 *
+	 * @throws IOException
+	 */
+	void startRow() throws IOException {
+		this.startRow(-1);
+	}
+
+	/**
+	 * 开始新的一行
+	 *
+	 * @param heightInPoints
+	 *            行高(磅)，小于0时使用默认行高
+	 * @throws IOException
+	 */
+	void startRow(float heightInPoints) throws IOException {
+		if (rownum >= MAX_ROWS) {
+			throw new RuntimeException("导出数据超出Excel最大行数" + MAX_ROWS);
+		}
+		this.start();
+		this.endRow();
+		writer.write("<row r=\"");
+		writer.write(Integer.toString(++rownum));
+		if (heightInPoints >= 0) {
+			writer.write("\" ht=\"");
+			writer.write(Float.toString(heightInPoints));
+			writer.write("\" customHeight=\"1");
+		}
+		writer.write("\">");
+		rowOpen = true;
+	}
+
+	/**
+	 * 当前行号(0-based)
+	 *
+	 * @return
+	 */
+	int getRownum() {
+		return rownum - 1;
+	}
+
+	/**
+	 * 添加只有样式的空白单元格
+	 *
+	 * @param column
+	 * @param style
+	 *            样式下标
+	 * @throws IOException
+	 */
+	void addBlankCell(int column, int style) throws IOException {
+		this.startCell(column, style, null);
+		writer.write("/>");
+	}
+
+	/**
+	 * 添加文本单元格
+	 *
+	 * @param column
+	 * @param style
+	 *            样式下标
+	 * @param text
+	 * @throws IOException
+	 */
+	void addTextCell(int column, int style, String text) throws IOException {
+		this.startCell(column, style, "inlineStr");
+		writer.write("><is><t xml:space=\"preserve\">");
+		this.escape(text);
+		writer.write("</t></is></c>");
+	}
+
+	/**
+	 * 添加单元格，按值的类型选择格式，与ExcelExport.addCell()一致
+	 *
+	 * @param column
+	 * @param value
+	 * @throws IOException
+	 */
+	void addCell(int column, Object value) throws IOException {
+		if (value == null) {
+			this.addBlankCell(column, STYLE_AUTO);
+		} else if (value instanceof java.sql.Date) {
+			this.addNumberCell(column, STYLE_DATE, DateUtil.getExcelDate((Date) value));
+		} else if (value instanceof java.sql.Time) {
+			this.addNumberCell(column, STYLE_TIME, DateUtil.getExcelDate((Date) value));
+		} else if (value instanceof Date) {
+			this.addNumberCell(column, STYLE_DATETIME, DateUtil.getExcelDate((Date) value));
+		} else if (value instanceof Calendar) {
+			this.addNumberCell(column, STYLE_AUTO, DateUtil.getExcelDate((Calendar) value, false));
+		} else if (value instanceof Boolean) {
+			this.startCell(column, STYLE_AUTO, "b");
+			writer.write((Boolean) value ? "><v>1</v></c>" : "><v>0</v></c>");
+		} else if (value instanceof Short || value instanceof Integer || value instanceof Long) {
+			this.startCell(column, STYLE_NUMBER, null);
+			writer.write("><v>");
+			writer.write(Long.toString(((Number) value).longValue()));
+			writer.write("</v></c>");
+		} else if (value instanceof Float || value instanceof Double) {
+			this.addNumberCell(column, STYLE_DECIMAL, ((Number) value).doubleValue());
+		} else {
+			String str = value.toString();
+			this.addTextCell(column, str.length() > WRAP_LENGTH ? STYLE_STRING : STYLE_AUTO, str);
+		}
+	}
+
+	/**
+	 * 添加数值单元格，NaN和无穷大按POI的处理写为错误值
+	 */
+	private void addNumberCell(int column, int style, double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			this.startCell(column, style, "e");
+			writer.write(Double.isNaN(value) ? "><v>#NUM!</v></c>" : "><v>#DIV/0!</v></c>");
+			return;
+		}
+		this.startCell(column, style, null);
+		writer.write("><v>");
+		writer.write(Double.toString(value));
+		writer.write("</v></c>");
+	}
+
+	private void startCell(int column, int style, String type) throws IOException {
+		if (!rowOpen) {
+			throw new IllegalStateException("添加单元格前需要先调用startRow()");
+		}
+		writer.write("<c r=\"");
+		writer.write(this.columnName(column));
+		writer.write(Integer.toString(rownum));
+		writer.write("\" s=\"");
+		writer.write(Integer.toString(style));
+		if (type != null) {
+			writer.write("\" t=\"");
+			writer.write(type);
+		}
+		writer.write('"');
+	}
+
+	private String columnName(int column) {
+		if (column >= columnNames.length) {
+			columnNames = Arrays.copyOf(columnNames, Math.max(columnNames.length * 2, column + 1));
+		}
+		String name = columnNames[column];
+		if (name == null) {
+			name = columnNames[column] = CellReference.convertNumToColString(column);
+		}
+		return name;
+	}
+
+	/**
+	 * 写出XML文本，去掉XML不允许的控制字符
+	 */
+	private void escape(String text) throws IOException {
+		for (int i = 0, length = text.length(); i < length; i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '<':
+				writer.write("&lt;");
+				break;
+			case '>':
+				writer.write("&gt;");
+				break;
+			case '&':
+				writer.write("&amp;");
+				break;
+			case '"':
+				writer.write("&quot;");
+				break;
+			default:
+				if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF || c == '\t' || c == '\n' || c == '\r') {
+					writer.write(c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 开始工作表，写出列宽
+	 */
+	private void start() throws IOException {
+		if (started) {
+			return;
+		}
+		started = true;
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+		writer.write(XML_HEADER);
+		writer.write("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+				+ "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">");
+		writer.write("<sheetFormatPr defaultRowHeight=\"15\"/>");
+		if (!columnWidths.isEmpty()) {
+			writer.write("<cols>");
+			for (Map.Entry<Integer, Integer> entry : columnWidths.entrySet()) {
+				String column = Integer.toString(entry.getKey() + 1);
+				writer.write("<col min=\"" + column + "\" max=\"" + column + "\" width=\"" + entry.getValue() / 256.0 + "\" customWidth=\"1\"/>");
+			}
+			writer.write("</cols>");
+		}
+		writer.write("<sheetData>");
+	}
+
+	private void endRow() throws IOException {
+		if (rowOpen) {
+			writer.write("</row>");
+			rowOpen = false;
+		}
+	}
+
+	/**
+	 * 结束工作表并写出zip目录，不关闭传入的输出流
+	 *
+	 * @throws IOException
+	 */
+	void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		this.start();
+		this.endRow();
+		writer.write("</sheetData>");
+		if (!mergedRegions.isEmpty()) {
+			writer.write("<mergeCells count=\"" + mergedRegions.size() + "\">");
+			for (CellRangeAddress region : mergedRegions) {
+				writer.write("<mergeCell ref=\"" + region.formatAsString() + "\"/>");
+			}
+			writer.write("</mergeCells>");
+		}
+		writer.write("</worksheet>");
+		writer.flush();
+		zip.closeEntry();
+		zip.finish();
+		zip.flush();
+	}
+}
@@ -0,0 +1,20 @@
+package cn.excel.imp;
+
+import java.util.List;
+
+/**
+ * 批量数据处理器，导入时按批次接收检查通过的实体对象
+ *
+ * @author yutyi
+ */
+public interface BatchSink<E> {
+
+	/**
+	 * 处理一批实体对象，方法返回后集合会被清空复用
+	 *
+	 * @param batch
+	 *            实体对象集合
+	 * @throws Exception
+	 */
+	void accept(List<E> batch) throws Exception;
+}
@@ -0,0 +1,71 @@
+package cn.excel.imp;
+
+/**
+ * 单元格检查错误
+ *
+ * @author yutyi
+ */
+public class CellError {
+
+	/**
+	 * 工作表名称，单工作表导入时为null
+	 */
+	private final String sheetName;
+
+	/**
+	 * 行号(0-based)
+	 */
+	private final int rowIndex;
+
+	/**
+	 * 列号(0-based)
+	 */
+	private final int columnIndex;
+
+	/**
+	 * 属性名
+	 */
+	private final String fieldName;
+
+	/**
+	 * 错误消息
+	 */
+	private final String message;
+
+	public CellError(int rowIndex, int columnIndex, String fieldName, String message) {
+		this(null, rowIndex, columnIndex, fieldName, message);
+	}
+
+	public CellError(String sheetName, int rowIndex, int columnIndex, String fieldName, String message) {
+		this.sheetName = sheetName;
+		this.rowIndex = rowIndex;
+		this.columnIndex = columnIndex;
+		this.fieldName = fieldName;
+		this.message = message;
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	public int getRowIndex() {
+		return rowIndex;
+	}
+
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return (sheetName == null ? "" : "[" + sheetName + "]") + "第" + (rowIndex + 1) + "行第" + (columnIndex + 1) + "列：" + message;
+	}
+}
@@ -0,0 +1,180 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
+import cn.excel.util.Converters;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工作表列与@ExcelField列的对应关系，每个文件按列头解析一次<br/>
+ * 读取器只解析有对应列的单元格，值按列定义下标存放；解析列头前按列号读取所有列
+ *
+ * @author yutyi
+ */
+public class ColumnMap {
+
+	/**
+	 * 解析列头前读取的最大列数(xlsx列数上限)
+	 */
+	private static final int MAX_COLUMNS = 16384;
+
+	/**
+	 * 解析列头前行数据数组的初始长度
+	 */
+	private static final int INITIAL_COLUMNS = 16;
+
+	/**
+	 * 工作表列号 -> 列定义下标，未解析时为null
+	 */
+	private int[] slots;
+
+	/**
+	 * 列定义下标 -> 工作表列号，文件中没有的列为-1
+	 */
+	private int[] columns;
+
+	/**
+	 * 行数据数组长度
+	 */
+	private int width = MAX_COLUMNS;
+
+	/**
+	 * 获取工作表列对应的列定义下标
+	 *
+	 * @param column
+	 *            工作表列号(0-based)
+	 * @return 不需要读取时返回-1
+	 */
+	public int slot(int column) {
+		if (slots == null) {
+			return column < width ? column : -1;
+		}
+		return column < slots.length ? slots[column] : -1;
+	}
+
+	/**
+	 * 行数据数组长度
+	 *
+	 * @return
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * 获取能存放指定下标的行数据数组，解析列头后长度为width()；<br/>
+	 * 解析前按行中实际出现的列增长，不为每行分配最大列数
+	 *
+	 * @param values
+	 *            当前行数据，行开始时为null
+	 * @param slot
+	 *            要存放的下标
+	 * @return
+	 */
+	Object[] values(Object[] values, int slot) {
+		if (values == null) {
+			return new Object[slots == null ? Math.min(width, Math.max(INITIAL_COLUMNS, slot + 1)) : width];
+		} else if (slot >= values.length) {
+			return Arrays.copyOf(values, Math.min(width, Math.max(values.length * 2, slot + 1)));
+		}
+		return values;
+	}
+
+	/**
+	 * 获取列定义对应的工作表列号
+	 *
+	 * @param index
+	 *            列定义下标
+	 * @return 文件中没有该列时返回-1
+	 */
+	int column(int index) {
+		return columns[index];
+	}
+
+	boolean isResolved() {
+		return slots != null;
+	}
+
+	/**
+	 * 按位置对应，第j列对应第j个列定义
+	 *
+	 * @param size
+	 *            列定义数量
+	 */
+	void resolvePositional(int size) {
+		int[] columns = new int[size];
+		for (int i = 0; i < size; i++) {
+			columns[i] = i;
+		}
+		this.resolve(columns);
+	}
+
+	/**
+	 * 按列头名称对应，列头与列名(未配置列名时为属性名)相同的列对应，同名列取第一个
+	 *
+	 * @param schema
+	 * @param header
+	 *            列头行数据，下标为工作表列号
+	 * @param missing
+	 *            返回文件中缺少的非必填列
+	 * @return 没有任何列头匹配时返回false，不修改对应关系
+	 * @throws RuntimeException
+	 *             文件中缺少必填列时
+	 */
+	boolean resolveHeader(ExcelSchema schema, Object[] header, List<String> missing) {
+		Map<String, Integer> headerIndex = new HashMap<>();
+		for (int j = 0; header != null && j < header.length; j++) {
+			String title = StringUtils.trim(Converters.toText(header[j]));
+			if (StringUtils.isNotEmpty(title)) {
+				headerIndex.putIfAbsent(title, j);
+			}
+		}
+		int[] columns = new int[schema.size()];
+		boolean matched = false;
+		List<String> missingRequired = new ArrayList<>();
+		for (ExcelColumn column : schema.getColumns()) {
+			Integer j = headerIndex.get(column.getTitle());
+			columns[column.getIndex()] = j == null ? -1 : j;
+			matched = matched || j != null;
+			if (j != null) {
+				continue;
+			}
+			if (column.getExcelField().required()) {
+				missingRequired.add(column.getTitle());
+			} else {
+				missing.add(column.getTitle());
+			}
+		}
+		if (!matched) {
+			missing.clear();
+			return false;
+		} else if (!missingRequired.isEmpty()) {
+			throw new RuntimeException("模板格式错误，缺少列：" + StringUtils.join(missingRequired, "、"));
+		}
+		this.resolve(columns);
+		return true;
+	}
+
+	private void resolve(int[] columns) {
+		int maxColumn = -1;
+		for (int column : columns) {
+			maxColumn = Math.max(maxColumn, column);
+		}
+		int[] slots = new int[maxColumn + 1];
+		Arrays.fill(slots, -1);
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] >= 0) {
+				slots[columns[i]] = i;
+			}
+		}
+		this.columns = columns;
+		this.width = columns.length;
+		this.slots = slots;
+	}
+}
@@ -0,0 +1,57 @@
+package cn.excel.imp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV格式的错误报告，每个错误一行：工作表,行号,列号,属性名,错误消息<br/>
+ * 工作表只在多工作表导入时有值，行号、列号从1开始，文件带UTF-8 BOM以便Excel直接打开
+ *
+ * @author yutyi
+ */
+public class CsvErrorReport implements ErrorReport {
+
+	private final Writer writer;
+
+	public CsvErrorReport(OutputStream os) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+		this.writer.write('\uFEFF');
+		this.writer.write("工作表,行号,列号,属性名,错误消息\r\n");
+	}
+
+	@Override
+	public void write(int rowIndex, Map<String, Object> data, List<CellError> errors) throws IOException {
+		for (CellError error : errors) {
+			if (error.getSheetName() != null) {
+				writer.write(escape(error.getSheetName()));
+			}
+			writer.write(',');
+			writer.write(String.valueOf(error.getRowIndex() + 1));
+			writer.write(',');
+			writer.write(String.valueOf(error.getColumnIndex() + 1));
+			writer.write(',');
+			writer.write(escape(error.getFieldName()));
+			writer.write(',');
+			writer.write(escape(error.getMessage()));
+			writer.write("\r\n");
+		}
+	}
+
+	private static String escape(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,38 @@
+package cn.excel.imp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 错误报告，检查过程中逐行输出错误，不再回写原文档<br/>
+ * 设置到ExcelImport后，检查未通过的行写入报告，原文档不再标红和加批注<br/>
+ * 报告由调用方关闭，关闭时输出剩余内容
+ *
+ * <example>
+ *
+ *   ExcelImport excelImport = new ExcelImport(User.class, 1, null, filepath, true);
+ *   try (ErrorReport report = new CsvErrorReport(response.getOutputStream())) {
+ *       excelImport.setErrorReport(report);
+ *       excelImport.validate();
+ *   }
+ *
+ * </example>
+ * @author yutyi
+ */
+public interface ErrorReport extends Closeable {
+
+	/**
+	 * 写入一行的检查错误
+	 *
+	 * @param rowIndex
+	 *            行号(0-based)
+	 * @param data
+	 *            行数据，key为属性名
+	 * @param errors
+	 *            该行的错误，不为空
+	 * @throws IOException
+	 */
+	void write(int rowIndex, Map<String, Object> data, List<CellError> errors) throws IOException;
+}
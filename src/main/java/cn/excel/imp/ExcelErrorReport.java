@@ -0,0 +1,205 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
+import cn.excel.util.Converters;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.Drawing;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Excel格式的错误报告，使用SXSSF流式写入<br/>
+ * “错误数据”工作表只包含未通过的行：原行号、各列数据和错误汇总，错误单元格标色，前maxComments个错误加批注<br/>
+ * “错误汇总”工作表按列和消息统计错误数量
+ *
+ * @author yutyi
+ */
+public class ExcelErrorReport implements ErrorReport {
+
+	/**
+	 * 默认批注数量上限
+	 */
+	public static final int DEFAULT_MAX_COMMENTS = 1000;
+
+	/**
+	 * 汇总时消息中的数字（如重复消息中的行号）替换为N后合并统计
+	 */
+	private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+	private final OutputStream os;
+
+	private final ExcelSchema schema;
+
+	private final int maxComments;
+
+	private final SXSSFWorkbook wb;
+
+	private final Sheet sheet;
+
+	private final Drawing<?> patriarch;
+
+	private final CellStyle errorStyle;
+
+	private final CellStyle headerStyle;
+
+	private int rownum;
+
+	private int commentCount;
+
+	private int rowCount;
+
+	private int errorCount;
+
+	/**
+	 * 属性名 -> 列定义
+	 */
+	private final Map<String, ExcelColumn> columnsByName = new HashMap<>();
+
+	/**
+	 * 列定义下标 -> (消息 -> 数量)
+	 */
+	private final Map<Integer, Map<String, Integer>> summary = new LinkedHashMap<>();
+
+	/**
+	 * 
+	 * @param os
+	 *            输出流，关闭报告时写入，不会关闭输出流
+	 * @param clazz
+	 *            导入的实体类型
+	 */
+	public ExcelErrorReport(OutputStream os, Class<?> clazz) {
+		this(os, clazz, DEFAULT_MAX_COMMENTS);
+	}
+
+	/**
+	 * 
+	 * @param os
+	 *            输出流，关闭报告时写入，不会关闭输出流
+	 * @param clazz
+	 *            导入的实体类型
+	 * @param maxComments
+	 *            批注数量上限，超出后只标色
+	 */
+	public ExcelErrorReport(OutputStream os, Class<?> clazz, int maxComments) {
+		this.os = os;
+		this.schema = ExcelSchema.of(clazz);
+		this.maxComments = maxComments;
+		for (ExcelColumn column : schema.getColumns()) {
+			columnsByName.put(column.getName(), column);
+		}
+		this.wb = new SXSSFWorkbook(100);
+		this.wb.setCompressTempFiles(true);
+		this.sheet = wb.createSheet("错误数据");
+		this.patriarch = sheet.createDrawingPatriarch();
+
+		this.errorStyle = wb.createCellStyle();
+		this.errorStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+		this.errorStyle.setFillForegroundColor(IndexedColors.TAN.index);
+
+		Font headerFont = wb.createFont();
+		headerFont.setBold(true);
+		this.headerStyle = wb.createCellStyle();
+		this.headerStyle.setFont(headerFont);
+
+		Row headerRow = sheet.createRow(rownum++);
+		this.createCell(headerRow, 0, "行号", headerStyle);
+		for (ExcelColumn column : schema.getColumns()) {
+			this.createCell(headerRow, column.getIndex() + 1, column.getTitle(), headerStyle);
+		}
+		this.createCell(headerRow, schema.size() + 1, "错误", headerStyle);
+	}
+
+	@Override
+	public void write(int rowIndex, Map<String, Object> data, List<CellError> errors) throws IOException {
+		rowCount++;
+		Row row = sheet.createRow(rownum++);
+		row.createCell(0).setCellValue(rowIndex + 1);
+		for (ExcelColumn column : schema.getColumns()) {
+			Object value = data.get(column.getName());
+			if (value != null) {
+				this.createCell(row, column.getIndex() + 1, Converters.toText(value), null);
+			}
+		}
+		StringBuilder messages = new StringBuilder();
+		for (CellError error : errors) {
+			errorCount++;
+			ExcelColumn column = columnsByName.get(error.getFieldName());
+			int columnIndex = column.getIndex() + 1;
+			Cell cell = row.getCell(columnIndex);
+			cell = cell == null ? row.createCell(columnIndex) : cell;
+			cell.setCellStyle(errorStyle);
+			if (commentCount < maxComments) {
+				commentCount++;
+				ClientAnchor anchor = patriarch.createAnchor(0, 0, 0, 0, columnIndex, row.getRowNum(), columnIndex + 3, row.getRowNum() + 3);
+				Comment comment = patriarch.createCellComment(anchor);
+				comment.setString(wb.getCreationHelper().createRichTextString(error.getMessage()));
+				cell.setCellComment(comment);
+			}
+			messages.append(messages.length() == 0 ? "" : "；").append(column.getTitle()).append("：")
+					.append(error.getMessage());
+
+			String message = NUMBER.matcher(error.getMessage()).replaceAll("N");
+			summary.computeIfAbsent(column.getIndex(), k -> new LinkedHashMap<>()).merge(message, 1, Integer::sum);
+		}
+		this.createCell(row, schema.size() + 1, messages.toString(), null);
+	}
+
+	/**
+	 * 写入汇总工作表并输出文档
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			Sheet summarySheet = wb.createSheet("错误汇总");
+			int summaryRownum = 0;
+			Row row = summarySheet.createRow(summaryRownum++);
+			this.createCell(row, 0, "错误行数", headerStyle);
+			row.createCell(1).setCellValue(rowCount);
+			row = summarySheet.createRow(summaryRownum++);
+			this.createCell(row, 0, "错误数", headerStyle);
+			row.createCell(1).setCellValue(errorCount);
+			summaryRownum++;
+
+			row = summarySheet.createRow(summaryRownum++);
+			this.createCell(row, 0, "列", headerStyle);
+			this.createCell(row, 1, "错误", headerStyle);
+			this.createCell(row, 2, "数量", headerStyle);
+			for (Map.Entry<Integer, Map<String, Integer>> entry : summary.entrySet()) {
+				String title = schema.getColumn(entry.getKey()).getTitle();
+				for (Map.Entry<String, Integer> messageEntry : entry.getValue().entrySet()) {
+					row = summarySheet.createRow(summaryRownum++);
+					this.createCell(row, 0, title, null);
+					this.createCell(row, 1, messageEntry.getKey(), null);
+					row.createCell(2).setCellValue(messageEntry.getValue());
+				}
+			}
+			wb.write(os);
+		} finally {
+			wb.dispose();
+		}
+	}
+
+	private void createCell(Row row, int column, String value, CellStyle style) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		if (style != null) {
+			cell.setCellStyle(style);
+		}
+	}
+}
@@ -1,52 +1,58 @@
 package cn.excel.imp;
 
+import cn.excel.ExcelColumn;
 import cn.excel.ExcelField;
-import cn.excel.util.DateUtils;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.lang.ObjectUtils;
+import cn.excel.ExcelSchema;
+import cn.excel.HandleField;
+import cn.excel.HandleFieldFactory;
+import cn.excel.Validator;
+import cn.excel.util.Converters;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.lang.reflect.Field;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Excel表格导入数据库
  *
  * @author yutyi
  */
-public class ExcelImport {
+public class ExcelImport implements Closeable {
 
 	private final static Logger logger = LoggerFactory.getLogger(ExcelImport.class);
 
 	private Class<?> clazz;
 
 	/**
-	 * 文件路径
+	 * 文档来源
 	 */
-	private String filepath;
+	private ExcelSource source;
 
 	/**
-	 * 列注解列表
+	 * 列定义
 	 */
-	private List<Object[]> annotationList;
+	private ExcelSchema schema;
 
 	/**
-	 * 
+	 * 已读取的数据，下标为行号减去数据起始索引
 	 */
-	private List<Map<String, Object>> dataList;
+	private RowStore rowStore;
 
 	/**
 	 * 工作薄对象
@@ -63,6 +69,11 @@ public class ExcelImport {
 	 */
 	private FormulaEvaluator evaluator;
 
+	/**
+	 * 是否重新计算公式
+	 */
+	private boolean evaluateFormula;
+
 	/**
 	 * 画板
 	 */
@@ -73,13 +84,40 @@ public class ExcelImport {
 	 */
 	private CreationHelper creationHelper;
 
-	private SimpleDateFormat sdf14 = new SimpleDateFormat("yyyy/M/d");
+	/**
+	 * 标记错误和清除标记使用的样式
+	 */
+	private StyleRegistry styleRegistry;
+
+	/**
+	 * 是否流式读取(不构建工作薄对象)
+	 */
+	private boolean streaming;
+
+	/**
+	 * 流式读取器
+	 */
+	private SheetReader reader;
+
+	/**
+	 * 工作表列与列定义的对应关系
+	 */
+	private ColumnMap columnMap = new ColumnMap();
 
-	private SimpleDateFormat sdf22 = new SimpleDateFormat("yyyy/M/d HH:mm");
+	/**
+	 * 流式读取的工作表索引
+	 */
+	private int sheetIndex;
 
-	private SimpleDateFormat sdf177 = new SimpleDateFormat("yyyy年M月d日");
+	/**
+	 * 工作表名称，多工作表导入时用于错误定位
+	 */
+	private String sheetName;
 
-	private NumberFormat numberFormat = NumberFormat.getInstance();
+	/**
+	 * 读取器是否由多个工作表共用，共用时由创建方关闭
+	 */
+	private boolean sharedReader;
 
 	/**
 	 * 工作表中行数
@@ -112,90 +150,282 @@ public class ExcelImport {
 	}
 
 	public ExcelImport(Class<?> clazz, int dataIndex, Object params, String filePath) {
-		logger.info("==>  Excel文件地址：{}", filePath);
+		this(clazz, dataIndex, params, filePath, false);
+	}
+
+	/**
+	 * 
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param filePath
+	 * @param streaming
+	 *            是否流式读取，流式读取时不支持回写错误批注
+	 */
+	public ExcelImport(Class<?> clazz, int dataIndex, Object params, String filePath, boolean streaming) {
+		this(clazz, dataIndex, params, ExcelSource.of(filePath), streaming);
+	}
+
+	/**
+	 * 读取本地文件，按文件打开不把整个文档读入内存；非流式读取时打开文件的临时副本，回写不影响原文件
+	 *
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param path
+	 * @param streaming
+	 *            是否流式读取，流式读取时不支持回写错误批注
+	 */
+	public ExcelImport(Class<?> clazz, int dataIndex, Object params, Path path, boolean streaming) {
+		this(clazz, dataIndex, params, ExcelSource.of(path), streaming);
+	}
+
+	/**
+	 * 从流中读取，文档由POI读入内存，已保存在本地的文件应使用{@link Path}
+	 *
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param is
+	 *            由调用方关闭
+	 * @param streaming
+	 *            是否流式读取，流式读取时不支持回写错误批注
+	 */
+	public ExcelImport(Class<?> clazz, int dataIndex, Object params, InputStream is, boolean streaming) {
+		this(clazz, dataIndex, params, ExcelSource.of(is), streaming);
+	}
+
+	/**
+	 * 
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param bytes
+	 *            文档内容
+	 * @param streaming
+	 *            是否流式读取，流式读取时不支持回写错误批注
+	 */
+	public ExcelImport(Class<?> clazz, int dataIndex, Object params, byte[] bytes, boolean streaming) {
+		this(clazz, dataIndex, params, ExcelSource.of(bytes), streaming);
+	}
+
+	/**
+	 * 
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param channel
+	 *            由调用方关闭
+	 * @param streaming
+	 *            是否流式读取，流式读取时不支持回写错误批注
+	 */
+	public ExcelImport(Class<?> clazz, int dataIndex, Object params, ReadableByteChannel channel, boolean streaming) {
+		this(clazz, dataIndex, params, ExcelSource.of(channel), streaming);
+	}
+
+	private ExcelImport(Class<?> clazz, int dataIndex, Object params, ExcelSource source, boolean streaming) {
+		logger.info("==>  Excel文件地址：{}", source);
 		this.clazz = clazz;
 		this.dataIndex = dataIndex;
 		this.params = params;
-		this.filepath = filePath;
-		numberFormat.setGroupingUsed(false);
+		this.source = source;
+		this.streaming = streaming;
 		this.init();
 	}
 
+	/**
+	 * 读取共用读取器中的一个工作表，用于多工作表导入
+	 *
+	 * @param clazz
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @param params
+	 * @param reader
+	 *            共用的流式读取器
+	 * @param sheetIndex
+	 *            工作表索引(0-based)
+	 * @param sheetName
+	 *            工作表名称
+	 */
+	ExcelImport(Class<?> clazz, int dataIndex, Object params, SheetReader reader, int sheetIndex, String sheetName) {
+		this.clazz = clazz;
+		this.dataIndex = dataIndex;
+		this.params = params;
+		this.streaming = true;
+		this.reader = reader;
+		this.sharedReader = true;
+		this.sheetIndex = sheetIndex;
+		this.sheetName = sheetName;
+		this.schema = ExcelSchema.of(clazz);
+	}
+
 	public void init() {
-		// 检查文件是否靠谱
-		if (StringUtils.isBlank(filepath)) {
-			throw new RuntimeException("导入文档为空!");
-		} else if (filepath.toLowerCase().endsWith(".xls") || filepath.toLowerCase().endsWith(".xlsx")) {
-			try {
-				InputStream is = new FileInputStream(filepath);
-				wb = WorkbookFactory.create(is);
+		// 按文件头检查文档格式
+		try {
+			if (streaming) {
+				reader = source.openReader();
+			} else {
+				wb = source.openWorkbook();
 				creationHelper = wb.getCreationHelper();
-				evaluator = creationHelper.createFormulaEvaluator();
-			} catch (Exception ex) {
-				throw new RuntimeException("文档格式不正确!");
+				styleRegistry = new StyleRegistry(wb);
 			}
-		} else {
-			throw new RuntimeException("文档格式不正确!");
+		} catch (Exception ex) {
+			throw new RuntimeException("文档格式不正确!", ex);
 		}
-		// 获取工作薄
-		this.sheet = this.wb.getSheetAt(0);
-		this.patriarch = this.sheet.createDrawingPatriarch();
+		if (this.wb != null) {
+			// 获取工作薄
+			this.sheet = this.wb.getSheetAt(0);
+			this.patriarch = this.sheet.createDrawingPatriarch();
 
-		this.rowCount = this.sheet.getLastRowNum();
-		if (this.rowCount == 0) {
-			throw new RuntimeException("模板格式错误，第一个工作薄无列头");
-		}
-		// 获取列上的注解，并根据注解进行排序
-		List<Object[]> annotationList = new ArrayList<>();
-		Field[] fields = this.clazz.getDeclaredFields();
-		for (Field field : fields) {
-			ExcelField excelField = field.getAnnotation(ExcelField.class);
-			if (excelField != null) {
-				annotationList.add(new Object[] { excelField, field });
-			}
-		}
-		// Field sorting
-		Collections.sort(annotationList, new Comparator<Object[]>() {
-			public int compare(Object[] o1, Object[] o2) {
-				return new Integer(((ExcelField) o1[0]).sort()).compareTo(new Integer(((ExcelField) o2[0]).sort()));
-			};
+			this.rowCount = this.sheet.getLastRowNum();
+			if (this.rowCount == 0) {
+				throw new RuntimeException("模板格式错误，第一个工作薄无列头");
+			}
+		}
+		// 获取列定义
+		this.schema = ExcelSchema.of(this.clazz);
+
+		// 文件数据延迟到使用时读取，读取前可调整读取选项
+	}
+
+	private RowStore readAll() {
+		RowStore rowStore = new RowStore(this.schema);
+		this.readRows((values, rowIndex) -> {
+			// 空行占位，保证数据下标与行号对应
+			while (dataIndex + rowStore.size() < rowIndex) {
+				rowStore.add(null);
+			}
+			rowStore.add(values);
 		});
-		this.annotationList = annotationList;
+		return rowStore;
+	}
 
-		// 读取文件数据
-		this.dataList = this.getDataList();
-		// this.dataNum = this.dataList.size();
+	/**
+	 * 获取已读取的数据，首次调用才读取文件
+	 *
+	 * @return
+	 */
+	private RowStore rowStore() {
+		if (this.rowStore == null) {
+			this.rowStore = this.readAll();
+		}
+		return this.rowStore;
 	}
 
-	private List<Map<String, Object>> getDataList() {
-		List<Map<String, Object>> dataList = new ArrayList<>();
+	/**
+	 * 逐行读取数据
+	 *
+	 * @param handler
+	 *            数据处理器，参数为下标为列号的值(已去掉文本两端空白)和行号
+	 */
+	private void readRows(ObjIntConsumer<Object[]> handler) {
+		if (this.reader != null) {
+			this.readStreamRows(handler);
+			return;
+		} else if (this.sheet == null) {
+			throw new RuntimeException("流式读取的文档只能读取一次");
+		}
+		if (!this.columnMap.isResolved()) {
+			this.resolveColumns(this.dataIndex > 0 ? this.getRowValues(this.getRow(this.dataIndex - 1)) : null);
+		}
 		int rowCount = this.sheet.getLastRowNum();
-		int columnCount = this.annotationList.size();
+		int columnCount = this.schema.size();
 		for (int i = dataIndex; i <= rowCount; i++) {
-			Map<String, Object> map = new HashMap<>();
+			Object[] values = new Object[columnCount];
 			Row row = this.getRow(i);
 			row = row == null ? this.sheet.createRow(i) : row;
 			for (int j = 0; j < columnCount; j++) {
-				Cell cell = row.getCell(j);
+				int column = this.columnMap.column(j);
+				Cell cell = column < 0 ? null : row.getCell(column);
 				if (cell == null) {
 					continue;
 				}
-				String cellValue = this.getCellValue(cell);
-				cellValue = StringUtils.trim(cellValue);
-				if (StringUtils.isNotEmpty(cellValue)) {
-					Object[] objs = this.annotationList.get(j);
-					Field field = (Field) objs[1];
-					String fieldName = field.getName();
-					map.put(fieldName, cellValue);
-				}
+				values[j] = trimToNull(this.getCellValue(cell));
 				// 删除批注
 				cell.removeCellComment();
 				this.clearError(cell);
 			}
-			dataList.add(map);
-			this.rowCount += (map.isEmpty() ? 0 : 1);
+			handler.accept(values, i);
+		}
+	}
+
+	/**
+	 * 读取整行的值，用于解析列头
+	 *
+	 * @param row
+	 * @return 下标为列号，行不存在时返回null
+	 */
+	private Object[] getRowValues(Row row) {
+		if (row == null || row.getLastCellNum() <= 0) {
+			return null;
+		}
+		Object[] values = new Object[row.getLastCellNum()];
+		for (Cell cell : row) {
+			values[cell.getColumnIndex()] = this.getCellValue(cell);
+		}
+		return values;
+	}
+
+	/**
+	 * 解析列对应关系，列头与列名匹配时按名称对应，否则按位置对应
+	 *
+	 * @param header
+	 *            列头行数据，没有列头时为null
+	 */
+	private void resolveColumns(Object[] header) {
+		List<String> missing = new ArrayList<>();
+		if (header == null || !this.columnMap.resolveHeader(this.schema, header, missing)) {
+			logger.debug("列头与列名不匹配，按位置读取");
+			this.columnMap.resolvePositional(this.schema.size());
+		} else if (!missing.isEmpty()) {
+			logger.warn("文档中缺少列：{}", StringUtils.join(missing, "、"));
+		}
+	}
+
+	/**
+	 * 流式读取数据，每行数据与对象模型读取时一致，文件只能读取一次
+	 *
+	 * @param handler
+	 */
+	private void readStreamRows(ObjIntConsumer<Object[]> handler) {
+		int columnCount = this.schema.size();
+		if (this.dataIndex == 0) {
+			this.resolveColumns(null);
+		}
+		try {
+			this.reader.read(this.sheetIndex, this.columnMap, (rowIndex, values) -> {
+				this.rowCount = rowIndex;
+				if (rowIndex < dataIndex) {
+					if (rowIndex == dataIndex - 1) {
+						this.resolveColumns(values);
+					}
+					return;
+				} else if (!this.columnMap.isResolved()) {
+					// 列头行为空行，之前读取的行数据可能短于列定义数量
+					this.resolveColumns(null);
+					values = Arrays.copyOf(values, Math.max(values.length, columnCount));
+				}
+				for (int j = 0; j < columnCount; j++) {
+					values[j] = trimToNull(values[j]);
+				}
+				handler.accept(values, rowIndex);
+			});
+		} catch (IOException ex) {
+			throw new RuntimeException("文档格式不正确!", ex);
+		} finally {
+			if (!this.sharedReader) {
+				IOUtils.closeQuietly(this.reader);
+			}
+			this.reader = null;
+		}
+		if (this.rowCount == 0) {
+			throw new RuntimeException("模板格式错误，" + (this.sheetName == null ? "第一个工作薄" : "工作表[" + this.sheetName + "]") + "无列头");
 		}
-		return dataList;
 	}
 
 	private int dataNum; // 数据行数
@@ -203,206 +433,696 @@ public class ExcelImport {
 	private int errorNum; // 错误行数
 
 	public boolean validate() {
-		int rowNum = this.dataList.size();
+		RowStore rowStore = this.rowStore();
+		int rowNum = rowStore.size();
+		this.reset();
 
 		boolean isError = true;
-		for (int i = 0; i < rowNum; i++) {
-			Row row = this.sheet.getRow(i + this.dataIndex);
-			Map<String, Object> data = this.dataList.get(i);
-			if (data != null && !data.isEmpty()) {
-				if (validate(row, data)) {
-					successNum++;
-				} else {
-					isError = false;
-					errorNum++;
+		try {
+			if (this.parallelism > 1) {
+				return this.validateParallel(rowStore);
+			}
+			Batch batch = new Batch();
+			for (int i = 0; i < rowNum; i++) {
+				if (!rowStore.isEmpty(i)) {
+					batch.add(i + this.dataIndex, rowStore.row(i));
+					if (batch.isFull()) {
+						isError &= this.count(this.validate(batch));
+						batch.clear();
+					}
 				}
 			}
+			if (!batch.isEmpty()) {
+				isError &= this.count(this.validate(batch));
+			}
+		} finally {
+			this.closeUniqueIndexes();
 		}
 		return isError;
 	}
 
 	/**
-	 * 
-	 * @param data
+	 * 并行检查：先按行区间分治，并行检查必填、格式并记录唯一值首次出现的行号；<br/>
+	 * 再按行号顺序计算重复、调用HandleField检查并标记错误，结果与逐行检查一致
+	 *
+	 * @param rowStore
+	 * @return
+	 */
+	private boolean validateParallel(RowStore rowStore) {
+		int rowNum = rowStore.size();
+		int keyCount = this.schema.getUniqueKeys().size();
+		List<Map<List<String>, Integer>> firstRowMaps = new ArrayList<>(keyCount);
+		for (int k = 0; k < keyCount; k++) {
+			firstRowMaps.add(new ConcurrentHashMap<>());
+		}
+		String[][] formatMessages = new String[rowNum][];
+		String[][][] uniqueValues = new String[rowNum][][];
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(new ValidateTask(rowStore, 0, rowNum, formatMessages, uniqueValues, firstRowMaps));
+		} finally {
+			pool.shutdown();
+		}
+
+		boolean isError = true;
+		int[] firstRows = new int[keyCount];
+		Batch batch = new Batch();
+		for (int i = 0; i < rowNum; i++) {
+			if (rowStore.isEmpty(i)) {
+				continue;
+			}
+			int rowIndex = i + this.dataIndex;
+			for (int k = 0; k < keyCount; k++) {
+				String[] values = uniqueValues[i][k];
+				Integer firstRow = values == null ? null : firstRowMaps.get(k).get(Arrays.asList(values));
+				firstRows[k] = firstRow == null || firstRow == rowIndex ? -1 : firstRow;
+			}
+			batch.add(rowIndex, rowStore.row(i), this.duplicates(firstRows), formatMessages[i]);
+			if (batch.isFull()) {
+				isError &= this.count(this.validate(batch));
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			isError &= this.count(this.validate(batch));
+		}
+		return isError;
+	}
+
+	/**
+	 * 累计检查结果
+	 *
+	 * @param errors
+	 *            各行的错误列表
+	 * @return 是否全部通过
+	 */
+	private boolean count(List<List<CellError>> errors) {
+		boolean isError = true;
+		for (List<CellError> rowErrors : errors) {
+			dataNum++;
+			if (rowErrors.isEmpty()) {
+				successNum++;
+			} else {
+				isError = false;
+				errorNum++;
+			}
+		}
+		return isError;
+	}
+
+	/**
+	 * 一批待检查的行，HandleField按批调用
+	 */
+	private static class Batch {
+
+		private static final int SIZE = 1000;
+
+		private final int[] rowIndexes = new int[SIZE];
+
+		private final List<Map<String, Object>> rows = new ArrayList<>(SIZE);
+
+		/**
+		 * 并行检查时预先算好的重复消息和格式错误消息，逐行检查时为空
+		 */
+		private final List<String[]> duplicates = new ArrayList<>();
+
+		private final List<String[]> formatMessages = new ArrayList<>();
+
+		void add(int rowIndex, Map<String, Object> data) {
+			rowIndexes[rows.size()] = rowIndex;
+			rows.add(data);
+		}
+
+		void add(int rowIndex, Map<String, Object> data, String[] duplicates, String[] formatMessages) {
+			this.add(rowIndex, data);
+			this.duplicates.add(duplicates);
+			this.formatMessages.add(formatMessages);
+		}
+
+		int size() {
+			return rows.size();
+		}
+
+		boolean isEmpty() {
+			return rows.isEmpty();
+		}
+
+		boolean isFull() {
+			return rows.size() == SIZE;
+		}
+
+		void clear() {
+			rows.clear();
+			duplicates.clear();
+			formatMessages.clear();
+		}
+	}
+
+	/**
+	 * 并行检查任务，行数超过阈值时对半拆分
+	 */
+	private class ValidateTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 1024;
+
+		private final RowStore rowStore;
+
+		private final int from;
+
+		private final int to;
+
+		private final String[][] formatMessages;
+
+		private final String[][][] uniqueValues;
+
+		private final List<Map<List<String>, Integer>> firstRowMaps;
+
+		ValidateTask(RowStore rowStore, int from, int to, String[][] formatMessages, String[][][] uniqueValues, List<Map<List<String>, Integer>> firstRowMaps) {
+			this.rowStore = rowStore;
+			this.from = from;
+			this.to = to;
+			this.formatMessages = formatMessages;
+			this.uniqueValues = uniqueValues;
+			this.firstRowMaps = firstRowMaps;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ValidateTask(rowStore, from, middle, formatMessages, uniqueValues, firstRowMaps),
+						new ValidateTask(rowStore, middle, to, formatMessages, uniqueValues, firstRowMaps));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				if (rowStore.isEmpty(i)) {
+					continue;
+				}
+				Map<String, Object> data = rowStore.row(i);
+				int rowIndex = i + dataIndex;
+				formatMessages[i] = checkFormats(data);
+				uniqueValues[i] = ExcelImport.this.uniqueValues(data);
+				for (int k = 0; k < uniqueValues[i].length; k++) {
+					if (uniqueValues[i][k] != null) {
+						firstRowMaps.get(k).merge(Arrays.asList(uniqueValues[i][k]), rowIndex, Math::min);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 设置错误报告，检查未通过的行写入报告，不再标记原文档<br/>
+	 * 配合流式读取使用时，原文档不必保留在内存中；报告由调用方关闭
+	 *
+	 * @param errorReport
+	 */
+	public void setErrorReport(ErrorReport errorReport) {
+		this.errorReport = errorReport;
+	}
+
+	/**
+	 * 设置是否重新计算公式，默认直接使用文档中保存的计算结果<br/>
+	 * 文档由不会计算公式的程序生成（没有保存结果）时才需要开启，需在读取数据前设置，流式读取不支持
+	 *
+	 * @param evaluateFormula
+	 */
+	public void setEvaluateFormula(boolean evaluateFormula) {
+		this.evaluateFormula = evaluateFormula;
+	}
+
+	/**
+	 * 设置validate()的并行度，大于1时使用fork-join并行检查<br/>
+	 * 并行检查时自定义的Validator需线程安全，唯一性检查在内存中进行，不使用临时文件
+	 *
+	 * @param parallelism
+	 *            并行线程数，默认为1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism必须大于0");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * 逐行读取、检查并转换数据，不保留已处理的行<br/>
+	 * 检查通过的行才会转换为实体对象；HandleField按批调用，行攒满一批后才一起交给监听器
+	 *
+	 * @param clazz
+	 *            实体类型
+	 * @param listener
+	 *            行监听器
+	 */
+	public <E> void read(Class<E> clazz, RowListener<E> listener) {
+		this.reset();
+		Batch batch = new Batch();
+		ObjIntConsumer<Map<String, Object>> handler = (data, rowIndex) -> {
+			if (data.isEmpty()) {
+				return;
+			}
+			batch.add(rowIndex, data);
+			if (batch.isFull()) {
+				this.process(clazz, batch, listener);
+				batch.clear();
+			}
+		};
+		try {
+			if (this.rowStore != null) {
+				for (int i = 0; i < this.rowStore.size(); i++) {
+					handler.accept(this.rowStore.row(i), i + this.dataIndex);
+				}
+			} else {
+				this.readRows((values, rowIndex) -> handler.accept(this.toMap(values), rowIndex));
+			}
+			if (!batch.isEmpty()) {
+				this.process(clazz, batch, listener);
+			}
+		} finally {
+			this.closeUniqueIndexes();
+		}
+	}
+
+	/**
+	 * 检查一批行，检查通过的行转换为实体对象后按行号顺序交给监听器
+	 *
+	 * @param clazz
+	 * @param batch
+	 * @param listener
+	 */
+	private <E> void process(Class<E> clazz, Batch batch, RowListener<E> listener) {
+		List<List<CellError>> errors = this.validate(batch);
+		this.count(errors);
+		List<Map<String, Object>> validRows = new ArrayList<>(batch.size());
+		for (int r = 0; r < batch.size(); r++) {
+			if (errors.get(r).isEmpty()) {
+				validRows.add(batch.rows.get(r));
+			}
+		}
+		List<E> entities = this.toModels(clazz, validRows);
+		int next = 0;
+		for (int r = 0; r < batch.size(); r++) {
+			E entity = errors.get(r).isEmpty() ? entities.get(next++) : null;
+			listener.onRow(new ImportRow<>(batch.rowIndexes[r], batch.rows.get(r), entity, errors.get(r)));
+		}
+	}
+
+	/**
+	 * 按批次读取数据，检查通过的实体对象每满batchSize个交给sink处理一次<br/>
+	 * 文件在后台线程中解析，与sink的处理并行进行
+	 *
+	 * @param clazz
+	 *            实体类型
+	 * @param batchSize
+	 *            每批数量
+	 * @param sink
+	 *            批量数据处理器
+	 */
+	public <E> void read(Class<E> clazz, int batchSize, BatchSink<E> sink) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize必须大于0");
+		}
+		List<E> batch = new ArrayList<>(batchSize);
+		try (RowIterator<E> iterator = this.iterator(clazz)) {
+			while (iterator.hasNext()) {
+				ImportRow<E> row = iterator.next();
+				if (row.isValid()) {
+					batch.add(row.getEntity());
+				}
+				if (batch.size() >= batchSize) {
+					this.flush(sink, batch);
+				}
+			}
+			if (!batch.isEmpty()) {
+				this.flush(sink, batch);
+			}
+		}
+	}
+
+	private <E> void flush(BatchSink<E> sink, List<E> batch) {
+		try {
+			sink.accept(batch);
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new RuntimeException("批量处理导入数据失败", ex);
+		}
+		batch.clear();
+	}
+
+	/**
+	 * 逐行读取数据的迭代器，读取在后台线程中进行，内存中只保留少量待处理的行<br/>
+	 * 未迭代完时需调用close()结束读取
+	 *
+	 * @param clazz
+	 *            实体类型
 	 * @return
 	 */
-	private boolean validate(Row row, Map<String, Object> data) {
-		boolean result = true;
+	public <E> RowIterator<E> iterator(Class<E> clazz) {
+		return new RowIterator<>(this, clazz);
+	}
+
+	/**
+	 * 逐行读取数据的流，使用完需关闭
+	 *
+	 * @param clazz
+	 *            实体类型
+	 * @return
+	 */
+	public <E> Stream<ImportRow<E>> stream(Class<E> clazz) {
+		RowIterator<E> iterator = this.iterator(clazz);
+		Spliterator<ImportRow<E>> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+	}
+
+	/**
+	 * 重置检查结果
+	 */
+	private void reset() {
+		dataNum = 0;
+		successNum = 0;
+		errorNum = 0;
+		this.closeUniqueIndexes();
+		List<List<ExcelColumn>> uniqueKeys = this.schema.getUniqueKeys();
+		this.uniqueIndexes = new UniqueIndex[uniqueKeys.size()];
+		for (int i = 0; i < uniqueIndexes.length; i++) {
+			uniqueIndexes[i] = new UniqueIndex(uniqueMemoryBudget);
+		}
+	}
+
+	private void closeUniqueIndexes() {
+		if (this.uniqueIndexes != null) {
+			for (UniqueIndex uniqueIndex : uniqueIndexes) {
+				uniqueIndex.close();
+			}
+			this.uniqueIndexes = null;
+		}
+	}
+
+	/**
+	 * 检查一批行数据，有错误的单元格标红并加批注
+	 *
+	 * @param batch
+	 * @return 各行的错误列表，为空时检查通过
+	 */
+	private List<List<CellError>> validate(Batch batch) {
+		int size = batch.size();
+		String[][] duplicates = new String[size][];
+		String[][] formatMessages = new String[size][];
+		for (int r = 0; r < size; r++) {
+			Map<String, Object> data = batch.rows.get(r);
+			if (batch.formatMessages.isEmpty()) {
+				// 按行号顺序检查唯一性
+				duplicates[r] = this.checkUnique(batch.rowIndexes[r], data);
+				formatMessages[r] = this.checkFormats(data);
+			} else {
+				duplicates[r] = batch.duplicates.get(r);
+				formatMessages[r] = batch.formatMessages.get(r);
+			}
+		}
+		String[][] handleMessages = this.checkHandles(batch.rows, duplicates, formatMessages);
+		List<List<CellError>> errors = new ArrayList<>(size);
+		for (int r = 0; r < size; r++) {
+			int rowIndex = batch.rowIndexes[r];
+			Row row = this.sheet == null ? null : this.sheet.getRow(rowIndex);
+			errors.add(this.validate(rowIndex, row, batch.rows.get(r), duplicates[r], formatMessages[r], handleMessages[r]));
+		}
+		return errors;
+	}
+
+	/**
+	 * 检查一行数据，有错误的单元格标红并加批注
+	 *
+	 * @param rowIndex
+	 *            行号
+	 * @param row
+	 *            行对象，流式读取时为null
+	 * @param data
+	 * @param duplicates
+	 *            下标为列号的重复消息，可以为null
+	 * @param formatMessages
+	 *            下标为列号的格式错误消息
+	 * @param handleMessages
+	 *            下标为列号的HandleField检查消息，可以为null
+	 * @return 错误列表，为空时检查通过
+	 */
+	private List<CellError> validate(int rowIndex, Row row, Map<String, Object> data, String[] duplicates, String[] formatMessages,
+			String[] handleMessages) {
+		List<CellError> errors = new ArrayList<>();
 		try {
-			int columnNum = this.annotationList.size();
-			for (int i = 0; i < columnNum; i++) {
-				Object[] objs = annotationList.get(i);
-				ExcelField excelField = (ExcelField) objs[0];
-				Field field = (Field) objs[1];
+			for (ExcelColumn column : this.schema.getColumns()) {
+				int i = column.getIndex();
+				ExcelField excelField = column.getExcelField();
+				Field field = column.getField();
 				String fieldName = field.getName();
 
-				String fieldValue = ObjectUtils.toString(data.get(fieldName));
-				Cell cell = row.getCell(i);
-				if (StringUtils.isEmpty(fieldValue)) {
+				Object fieldValue = data.get(fieldName);
+				String message = null;
+				if (isEmpty(fieldValue)) {
 					// 检查是否有值
 					if (excelField.required()) {
-						cell = (cell == null ? row.createCell(i) : cell); // 单元格不存在时，则创建一个
-						this.flagError(cell, "不允许空");
-						result = false;
+						message = "不允许空";
 					}
-					continue;
-				}
-				// 检查是否唯一
-				if (excelField.unique()) {
-					List<String> valueList = uniqueMap.get(fieldName);
-					valueList = (valueList == null ? new ArrayList<>() : valueList);
-					if (valueList.contains(fieldValue)) {
-						this.flagError(cell, "该列不允许重复");
-						result = false;
-						continue;
+				} else if (duplicates != null && duplicates[i] != null) {
+					// 检查是否唯一
+					message = duplicates[i];
+				} else {
+					// 检查格式是否正确
+					message = formatMessages[i];
+					// handleField检查是否正确
+					if (message == null && handleMessages != null) {
+						message = handleMessages[i];
 					}
-					valueList.add(fieldValue);
-					uniqueMap.put(fieldName, valueList);
 				}
-				// 检查格式是否正确
-				if (!checkFormat(cell, field, excelField, fieldValue)) {
-					result = false;
-					continue;
-				}
-				// handleField检查是否正确
-				if (!checkHandle(cell, field, excelField, data)) {
-					result = false;
-					continue;
+				if (message != null) {
+					errors.add(new CellError(this.sheetName, rowIndex, this.columnMap.column(i), fieldName, message));
+					if (this.errorReport == null) {
+						this.flagError(row, this.columnMap.column(i), message);
+					}
 				}
 			}
 		} catch (Exception ex) {
 			logger.error("excel检查报错", ex);
 		}
-		return result;
+		if (this.errorReport != null && !errors.isEmpty()) {
+			try {
+				this.errorReport.write(rowIndex, data, errors);
+			} catch (IOException ex) {
+				throw new RuntimeException("写入错误报告失败", ex);
+			}
+		}
+		return errors;
 	}
 
-	private Map<Integer, cn.excel.HandleField> handleFieldMap = new HashMap<>();
+	/**
+	 * 检查一行数据各列的格式，不检查空值
+	 *
+	 * @param data
+	 * @return 下标为列号的格式错误消息
+	 */
+	private String[] checkFormats(Map<String, Object> data) {
+		String[] messages = new String[this.schema.size()];
+		for (ExcelColumn column : this.schema.getColumns()) {
+			Object fieldValue = data.get(column.getName());
+			if (!isEmpty(fieldValue)) {
+				messages[column.getIndex()] = this.checkFormat(column, fieldValue);
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * 检查是否唯一，单列唯一时空值不检查
+	 *
+	 * @param rowIndex
+	 * @param data
+	 * @return 下标为列号的重复消息，没有重复时返回null
+	 */
+	private String[] checkUnique(int rowIndex, Map<String, Object> data) {
+		String[][] uniqueValues = this.uniqueValues(data);
+		int[] firstRows = new int[uniqueValues.length];
+		for (int k = 0; k < uniqueValues.length; k++) {
+			firstRows[k] = uniqueValues[k] == null ? -1 : uniqueIndexes[k].putIfAbsent(uniqueValues[k], rowIndex);
+		}
+		return this.duplicates(firstRows);
+	}
 
 	/**
-	 * 获取HandleField
+	 * 获取每个唯一约束的值
+	 *
+	 * @param data
+	 * @return 下标为约束序号，值全部为空时为null
+	 */
+	private String[][] uniqueValues(Map<String, Object> data) {
+		List<List<ExcelColumn>> uniqueKeys = this.schema.getUniqueKeys();
+		String[][] uniqueValues = new String[uniqueKeys.size()][];
+		for (int k = 0; k < uniqueValues.length; k++) {
+			List<ExcelColumn> uniqueKey = uniqueKeys.get(k);
+			String[] values = new String[uniqueKey.size()];
+			boolean isEmpty = true;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = Converters.toText(data.get(uniqueKey.get(i).getName()));
+				isEmpty = isEmpty && values[i].isEmpty();
+			}
+			if (!isEmpty) {
+				uniqueValues[k] = values;
+			}
+		}
+		return uniqueValues;
+	}
+
+	/**
+	 * 生成重复消息
+	 *
+	 * @param firstRows
+	 *            下标为约束序号，值为重复值首次出现的行号，不重复时为-1
+	 * @return 下标为列号的重复消息，没有重复时返回null
+	 */
+	private String[] duplicates(int[] firstRows) {
+		String[] duplicates = null;
+		List<List<ExcelColumn>> uniqueKeys = this.schema.getUniqueKeys();
+		for (int k = 0; k < firstRows.length; k++) {
+			int firstRow = firstRows[k];
+			if (firstRow >= 0) {
+				List<ExcelColumn> uniqueKey = uniqueKeys.get(k);
+				String message;
+				if (uniqueKey.size() == 1) {
+					message = "该列不允许重复，与第" + (firstRow + 1) + "行重复";
+				} else {
+					StringBuilder titles = new StringBuilder();
+					for (ExcelColumn column : uniqueKey) {
+						titles.append(titles.length() == 0 ? "" : "、").append(column.getTitle());
+					}
+					message = titles + "的组合不允许重复，与第" + (firstRow + 1) + "行重复";
+				}
+				duplicates = duplicates == null ? new String[this.schema.size()] : duplicates;
+				for (ExcelColumn column : uniqueKey) {
+					duplicates[column.getIndex()] = message;
+				}
+			}
+		}
+		return duplicates;
+	}
+
+	/**
+	 * 设置唯一性检查的内存预算，每个唯一约束单独计算，超出后使用临时文件
+	 *
+	 * @param uniqueMemoryBudget
+	 *            字节数
+	 */
+	public void setUniqueMemoryBudget(long uniqueMemoryBudget) {
+		this.uniqueMemoryBudget = uniqueMemoryBudget;
+	}
+
+	/**
+	 * HandleField，下标为列号
+	 */
+	private HandleField[] handleFields;
+
+	/**
+	 * 设置HandleField工厂，不设置时使用{@link HandleFieldFactory#getDefault()}
+	 *
+	 * @param handleFieldFactory
+	 */
+	public void setHandleFieldFactory(HandleFieldFactory handleFieldFactory) {
+		this.handleFieldFactory = handleFieldFactory;
+	}
+
+	/**
+	 * 获取列的HandleField，每列只获取一次
 	 * 
-	 * @param excelField
+	 * @param column
 	 * @return
 	 */
-	private cn.excel.HandleField getHandleField(ExcelField excelField) {
-		cn.excel.HandleField handleField = handleFieldMap.get(excelField.sort());
+	private HandleField getHandleField(ExcelColumn column) {
+		if (handleFields == null) {
+			handleFields = new HandleField[this.schema.size()];
+		}
+		HandleField handleField = handleFields[column.getIndex()];
 		if (handleField == null) {
+			HandleFieldFactory factory = handleFieldFactory == null ? HandleFieldFactory.getDefault() : handleFieldFactory;
 			try {
-				Class<?> appContext = Class.forName("leap.core.AppContext");
-				Method method = appContext.getMethod("getBean", Class.class);
-				handleField = (cn.excel.HandleField) method.invoke(null, excelField.handleField());
+				handleField = factory.create(column.getHandleFieldType());
 			} catch (Exception ex) {
-				try {
-					handleField = (cn.excel.HandleField) excelField.handleField().newInstance();
-				} catch (Exception e) {
-					logger.warn("配置的HandleField类型错误");
-				}
+				throw new RuntimeException("获取HandleField失败：" + column.getHandleFieldType().getName(), ex);
 			}
 			handleField.setParams(this.params);
-			handleFieldMap.put(excelField.sort(), handleField);
+			handleFields[column.getIndex()] = handleField;
 		}
 		return handleField;
 	}
 
-	private boolean checkHandle(Cell cell, Field field, ExcelField excelField, Map<String, Object> data) {
-		// 调用处理器进行校验
-		if (cn.excel.HandleField.class.isAssignableFrom(excelField.handleField())) {
-			cn.excel.HandleField handleField = this.getHandleField(excelField);
-			if (!handleField.validate(field.getName(), data)) {
-				String msg = handleField.getMessage();
-				this.flagError(cell, msg);
-				return false;
+	/**
+	 * 按批调用HandleField检查，只检查有值且重复、格式检查通过的单元格
+	 *
+	 * @param rows
+	 * @param duplicates
+	 *            各行下标为列号的重复消息
+	 * @param formatMessages
+	 *            各行下标为列号的格式错误消息
+	 * @return 各行下标为列号的检查消息，没有错误的行为null
+	 */
+	private String[][] checkHandles(List<Map<String, Object>> rows, String[][] duplicates, String[][] formatMessages) {
+		String[][] messages = new String[rows.size()][];
+		for (ExcelColumn column : this.schema.getColumns()) {
+			if (column.getHandleFieldType() == null) {
+				continue;
+			}
+			int i = column.getIndex();
+			List<Map<String, Object>> checkRows = new ArrayList<>();
+			int[] positions = new int[rows.size()];
+			for (int r = 0; r < rows.size(); r++) {
+				Map<String, Object> data = rows.get(r);
+				if (!isEmpty(data.get(column.getName())) && (duplicates[r] == null || duplicates[r][i] == null) && formatMessages[r][i] == null) {
+					positions[checkRows.size()] = r;
+					checkRows.add(data);
+				}
+			}
+			if (checkRows.isEmpty()) {
+				continue;
+			}
+			String[] checkMessages;
+			try {
+				HandleField handleField = this.getHandleField(column);
+				checkMessages = handleField.validateBatch(column.getName(), handleField.isTypedValues() ? checkRows : TextRow.of(checkRows));
+			} catch (Exception ex) {
+				logger.error("excel检查报错", ex);
+				continue;
+			}
+			for (int n = 0; n < checkRows.size(); n++) {
+				if (checkMessages[n] != null) {
+					int r = positions[n];
+					messages[r] = messages[r] == null ? new String[this.schema.size()] : messages[r];
+					messages[r][i] = checkMessages[n];
+				}
 			}
 		}
-		return true;
+		return messages;
 	}
 
 	/**
 	 * 检查格式
 	 * 
-	 * @param cell
-	 * @param field
+	 * @param column
 	 * @param value
-	 * @return
+	 * @return 错误消息，格式正确时返回null
 	 */
-	private boolean checkFormat(Cell cell, Field field, ExcelField excelField, String value) {
-		String format = excelField.format();
-		boolean result = true;
-		String message = "格式不正确";
-
-		if (StringUtils.isNotEmpty(format)) {
-			result = true;
-			if ("string".equalsIgnoreCase(format)) {
-				result = true;
-			} else if ("datetime".equalsIgnoreCase(format) && DateUtils.toTimestamp(value) == null) {
-				result = false;
-				message = "格式不正确，需精确到时分秒";
-			} else if ("date".equalsIgnoreCase(format) && DateUtils.toDate(value) == null) {
-				result = false;
-				message = "格式不正确，需精确到年月日";
-			} else if ("time".equalsIgnoreCase(format) && DateUtils.toTime(value) == null) {
-				result = false;
-				message = "格式不正确，请输入时间格式";
-			} else if (("double".equalsIgnoreCase(format) || "float".equalsIgnoreCase(format)) && !NumberUtils.isNumber(value)) {
-				result = false;
-				message = "格式不正确，请输入数值";
-			} else if ("money".equalsIgnoreCase(format)) {
-				String strValue = StringUtils.removeEnd(value, "0");
-				String[] values = StringUtils.split(strValue, ".");
-				if (StringUtils.startsWith(value, "-") || !NumberUtils.isNumber(value) || (values.length == 2 && values[1].length() > 2)) {
-					result = false;
-					message = "格式不正确，请输入金额";
-				}
-			} else if (("byte".equalsIgnoreCase(format) || "short".equalsIgnoreCase(format) || "int".equalsIgnoreCase(format) || "long".equalsIgnoreCase(format))
-					&& !NumberUtils.isDigits(value)) {
-				result = false;
-				message = "格式不正确，请输入整数";
-			} else if ("mobile".equalsIgnoreCase(format) && !Pattern.compile("^1[3|4|5|7|8][0-9]{9}$").matcher(value).find()) {
-				result = false;
-				message = "格式不正确，请输入手机号";
-			} else if ("tags".equals(format)) {
-			    if (StringUtils.isNotEmpty(value)) {
-                    String[] tags = {"排放点","污染点","扩散点"};
-                    List list = Arrays.asList(tags);
-                    String[] str = value.split(",");
-                    w:for (String tag : str) {
-                        if (!list.contains(tag)) {
-                            result = false;
-                            message = "格式不正确，请输入正确的分类格式";
-                            break w;
-                        }
-                    }
-                }
-			} else if (StringUtils.startsWith(format, "{") && StringUtils.endsWith(format, "}")) {
-				try {
-					String json = StringUtils.replace(format, "\\", "\\\\");
-					JSONObject obj = JSON.parseObject(json);
-					String regex = obj.getString("regex");
-					String msg = obj.getString("msg");
-					if (StringUtils.isNotEmpty(regex)) {
-						Pattern pattern = regexMap.get(field.getName());
-						pattern = (pattern == null) ? Pattern.compile(regex) : pattern;
-						regexMap.put(field.getName(), pattern);
-						result = pattern.matcher(value).find();
-						if (result == false) {
-							this.flagError(cell, msg);
-							return false;
-						}
-					}
-				} catch (Exception ex) {
-					logger.warn("配置JSON格式错误：{}", format);
-				}
-			}
-			if (result == false) {
-				this.flagError(cell, message);
-			}
-		}
-		return result;
+	private String checkFormat(ExcelColumn column, Object value) {
+		Validator validator = column.getValidator();
+		return validator == null ? null : validator.validate(value);
 	}
 
 	// 用于检查是否唯一
-	private Map<String, List<String>> uniqueMap = new HashMap<>();
-	private Map<String, Pattern> regexMap = new HashMap<>();
+	private UniqueIndex[] uniqueIndexes;
+	private long uniqueMemoryBudget = 64L * 1024 * 1024;
+	// validate()的并行度
+	private int parallelism = 1;
+	// 错误报告
+	private ErrorReport errorReport;
+	// HandleField工厂
+	private HandleFieldFactory handleFieldFactory;
 
 	/**
 	 * 清理红色背景色
@@ -412,47 +1132,24 @@ public class ExcelImport {
 	private void clearError(Cell cell) {
 		CellStyle cellStyle = cell.getCellStyle();
 		if (cellStyle != null) {
-			CellStyle newStyle = this.wb.createCellStyle();
-			newStyle.cloneStyleFrom(cellStyle);
-			newStyle.setFillPattern(FillPatternType.NO_FILL);
-
-			Font font = this.wb.getFontAt(newStyle.getFontIndex());
-
-			Font newFont = this.wb.createFont();
-			newFont.setColor(IndexedColors.BLACK.index);
-			newFont.setFontHeightInPoints(font.getFontHeightInPoints());
-			newFont.setFontName(font.getFontName());
-			newFont.setCharSet(font.getCharSet());
-			newStyle.setFont(newFont);
-
-			cell.setCellStyle(newStyle);
+			cell.setCellStyle(this.styleRegistry.derive(cellStyle, FillPatternType.NO_FILL, StyleRegistry.KEEP_COLOR, IndexedColors.BLACK.index));
 		}
 	}
 
 	/**
 	 * 标记错误(标红，另外加批注)
 	 */
-	private void flagError(Cell cell, String message) {
+	private void flagError(Row row, int column, String message) {
+		// 流式读取时没有行对象
+		if (row == null || column < 0) {
+			return;
+		}
+		Cell cell = row.getCell(column);
+		cell = (cell == null ? row.createCell(column) : cell); // 单元格不存在时，则创建一个
 		// 标红
 		CellStyle cellStyle = cell.getCellStyle();
 		if (cellStyle != null) {
-			CellStyle newStyle = this.wb.createCellStyle();
-			newStyle.cloneStyleFrom(cellStyle);
-			Font font = this.wb.getFontAt(newStyle.getFontIndex());
-
-			Font newFont = this.wb.createFont();
-			newFont.setColor(IndexedColors.AUTOMATIC.index);
-			newFont.setFontHeightInPoints(font.getFontHeightInPoints());
-			newFont.setFontName(font.getFontName());
-			newFont.setCharSet(font.getCharSet());
-			newFont.setBold(false);
-			newStyle.setFont(newFont);
-			newStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-			newStyle.setFillForegroundColor(IndexedColors.TAN.index);
-
-			// newStyle.setFillForegroundColor(IndexedColors.RED.index);
-			// newStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-			cell.setCellStyle(newStyle);
+			cell.setCellStyle(this.styleRegistry.derive(cellStyle, FillPatternType.SOLID_FOREGROUND, IndexedColors.TAN.index, IndexedColors.AUTOMATIC.index));
 		}
 		// 加错误批注
 		this.addComment(cell, message);
@@ -471,52 +1168,99 @@ public class ExcelImport {
 
 	public <E> List<E> getModelList(Class<E> clazz) throws InstantiationException, IllegalAccessException, InvocationTargetException {
 		List<E> entityList = new ArrayList<>();
-		for (Map<String, Object> data : dataList) {
-			if (data != null && !data.isEmpty()) {
-				E entity = clazz.newInstance();
-				for (Object[] objs : annotationList) {
-					ExcelField excelField = (ExcelField) objs[0];
-					Field field = (Field) objs[1];
-					String fieldName = field.getName();
-					Object fieldValue = data.get(fieldName);
-					if (cn.excel.HandleField.class.isAssignableFrom(excelField.handleField())) {
-						cn.excel.HandleField handleField = this.getHandleField(excelField);
-						fieldValue = handleField.translate(data);
-					}
-					this.setFieldValue(entity, field, fieldValue);
+		RowStore rowStore = this.rowStore();
+		List<Map<String, Object>> rows = new ArrayList<>(Batch.SIZE);
+		for (int i = 0; i < rowStore.size(); i++) {
+			if (!rowStore.isEmpty(i)) {
+				rows.add(rowStore.row(i));
+				if (rows.size() == Batch.SIZE) {
+					entityList.addAll(this.newModels(clazz, rows));
+					rows.clear();
 				}
-				entityList.add(entity);
 			}
 		}
+		entityList.addAll(this.newModels(clazz, rows));
 		return entityList;
 	}
 
-	private void setFieldValue(Object obj, Field field, Object fieldValue) throws IllegalAccessException, InvocationTargetException {
-		if (fieldValue != null) {
-			Class<?> fieldType = field.getType();
-			String strValue = String.valueOf(fieldValue);
-			Object propertyValue = fieldValue;
-			if (fieldType.isAssignableFrom(Date.class)) {
-				propertyValue = DateUtils.toTimestamp(strValue);
-			} else if (fieldType.isAssignableFrom(Double.class)) {
-				propertyValue = new Double(strValue);
-			} else if (fieldType.isAssignableFrom(Integer.class)) {
-				propertyValue = new Integer(strValue);
-			} else if (fieldType.isAssignableFrom(Boolean.class)) {
-				propertyValue = new Boolean(strValue);
-			} else if (fieldType.isAssignableFrom(java.sql.Time.class)) {
-				propertyValue = DateUtils.toTime(strValue);
-			} else if (fieldType.isAssignableFrom(java.sql.Date.class)) {
-				propertyValue = DateUtils.toDate(strValue);
-			}
-			// 如果属性为空，则导入时忽略
-			if (propertyValue != null) {
-				try {
-					BeanUtils.setProperty(obj, field.getName(), propertyValue);
-				} catch (Exception ex) {
+	/**
+	 * 逐行处理时的行数据，处理完不保留
+	 *
+	 * @param values
+	 *            下标为列号
+	 * @return
+	 */
+	private Map<String, Object> toMap(Object[] values) {
+		Map<String, Object> map = new HashMap<>();
+		for (ExcelColumn column : this.schema.getColumns()) {
+			Object value = values[column.getIndex()];
+			if (value != null) {
+				map.put(column.getName(), value);
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * 实体绑定器，按实体类型缓存
+	 */
+	private Map<Class<?>, ModelBinder<?>> binderMap = new HashMap<>();
+
+	@SuppressWarnings("unchecked")
+	private <E> ModelBinder<E> getBinder(Class<E> clazz) {
+		ModelBinder<E> binder = (ModelBinder<E>) binderMap.get(clazz);
+		if (binder == null) {
+			binder = new ModelBinder<>(clazz, schema);
+			binderMap.put(clazz, binder);
+		}
+		return binder;
+	}
+
+	/**
+	 * 将一批行数据转换为实体对象，HandleField按批转换
+	 *
+	 * @param clazz
+	 * @param rows
+	 * @return 下标与rows对应
+	 */
+	private <E> List<E> newModels(Class<E> clazz, List<Map<String, Object>> rows)
+			throws InstantiationException, IllegalAccessException, InvocationTargetException {
+		List<E> entities = new ArrayList<>(rows.size());
+		if (rows.isEmpty()) {
+			return entities;
+		}
+		ModelBinder<E> binder = this.getBinder(clazz);
+		Object[][] translated = new Object[this.schema.size()][];
+		List<Map<String, Object>> textRows = null;
+		for (ExcelColumn column : this.schema.getColumns()) {
+			if (column.getHandleFieldType() != null) {
+				HandleField handleField = this.getHandleField(column);
+				if (handleField.isTypedValues()) {
+					translated[column.getIndex()] = handleField.translateBatch(rows);
+				} else {
+					textRows = textRows == null ? TextRow.of(rows) : textRows;
+					translated[column.getIndex()] = handleField.translateBatch(textRows);
 				}
 			}
 		}
+		for (int r = 0; r < rows.size(); r++) {
+			Map<String, Object> data = rows.get(r);
+			E entity = binder.newInstance();
+			for (ExcelColumn column : this.schema.getColumns()) {
+				int i = column.getIndex();
+				binder.set(entity, i, translated[i] == null ? data.get(column.getName()) : translated[i][r]);
+			}
+			entities.add(entity);
+		}
+		return entities;
+	}
+
+	private <E> List<E> toModels(Class<E> clazz, List<Map<String, Object>> rows) {
+		try {
+			return this.newModels(clazz, rows);
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+			throw new RuntimeException("实体对象创建失败：" + clazz.getName(), ex);
+		}
 	}
 
 	/**
@@ -526,6 +1270,9 @@ public class ExcelImport {
 	 *            输出数据流
 	 */
 	public void write(OutputStream os) throws IOException {
+		if (wb == null) {
+			throw new RuntimeException("流式读取不支持回写文档");
+		}
 		wb.write(os);
 	}
 
@@ -549,8 +1296,26 @@ public class ExcelImport {
 	 *            输出文件名
 	 */
 	public void write(String filePath) throws FileNotFoundException, IOException {
-		FileOutputStream os = new FileOutputStream(filePath);
-		this.write(os);
+		try (FileOutputStream os = new FileOutputStream(filePath)) {
+			this.write(os);
+		}
+	}
+
+	/**
+	 * 关闭文档，释放文件句柄和临时文件，回写文档需在关闭前完成<br/>
+	 * 关闭时丢弃未写出的修改，不会写回原文件
+	 */
+	@Override
+	public void close() {
+		this.closeUniqueIndexes();
+		if (this.reader != null && !this.sharedReader) {
+			IOUtils.closeQuietly(this.reader);
+		}
+		this.reader = null;
+		if (this.wb != null) {
+			this.source.close(this.wb);
+			this.wb = null;
+		}
 	}
 
 	/**
@@ -567,38 +1332,32 @@ public class ExcelImport {
 	 * 获取单元格的值
 	 * 
 	 * @param cell
-	 * @return
+	 * @return 文本为String，数值为Double，布尔为Boolean，日期格式的数值为Date
 	 */
-	private String getCellValue(Cell cell) {
+	private Object getCellValue(Cell cell) {
 		CellType cellType = cell.getCellTypeEnum();
 		if (cellType == CellType.STRING) {
 			return cell.getStringCellValue();
 		} else if (cellType == CellType.NUMERIC) {
-			if (DateUtil.isCellDateFormatted(cell)) {
-				Date date = cell.getDateCellValue();
-				short dataFormat = cell.getCellStyle().getDataFormat();
-				if (dataFormat == 14) {
-					return sdf14.format(date);
-				} else if (dataFormat == 22) {
-					return sdf22.format(date);
-				} else if (dataFormat == 177) {
-					return sdf177.format(date);
-				}
-				return new DataFormatter().formatCellValue(cell, evaluator);
-			} else {
-				double cellValue = cell.getNumericCellValue();
-				String strValue = numberFormat.format(cellValue);
-				if (StringUtils.endsWith(strValue, ".0")) {
-					return StringUtils.removeEnd(strValue, ".0");
-				} else {
-					return strValue;
-				}
-			}
+			return this.getNumberValue(cell, cell.getNumericCellValue());
 		} else if (cellType == CellType.BOOLEAN) {
-			return cell.getBooleanCellValue() ? "True" : "False";
+			return cell.getBooleanCellValue();
 		} else if (cellType == CellType.FORMULA) {
-			CellValue cellValue = evaluator.evaluate(cell);
-			return this.getCellValue(cellValue);
+			if (evaluateFormula) {
+				if (evaluator == null) {
+					evaluator = creationHelper.createFormulaEvaluator();
+				}
+				return this.getCellValue(cell, evaluator.evaluate(cell));
+			}
+			// 使用文档中保存的计算结果
+			CellType resultType = cell.getCachedFormulaResultTypeEnum();
+			if (resultType == CellType.STRING) {
+				return cell.getStringCellValue();
+			} else if (resultType == CellType.NUMERIC) {
+				return this.getNumberValue(cell, cell.getNumericCellValue());
+			} else if (resultType == CellType.BOOLEAN) {
+				return cell.getBooleanCellValue();
+			}
 		}
 		return null;
 	}
@@ -606,27 +1365,51 @@ public class ExcelImport {
 	/**
 	 * 获取公式计算值
 	 * 
+	 * @param cell
 	 * @param cellValue
 	 * @return
 	 */
-	private String getCellValue(CellValue cellValue) {
+	private Object getCellValue(Cell cell, CellValue cellValue) {
 		CellType cellType = cellValue.getCellTypeEnum();
 		if (cellType == CellType.STRING) {
 			return cellValue.getStringValue();
 		} else if (cellType == CellType.NUMERIC) {
-			double doubleValue = cellValue.getNumberValue();
-			String strValue = numberFormat.format(doubleValue);
-			if (StringUtils.endsWith(strValue, ".0")) {
-				return StringUtils.removeEnd(strValue, ".0");
-			} else {
-				return strValue;
-			}
+			return this.getNumberValue(cell, cellValue.getNumberValue());
 		} else if (cellType == CellType.BOOLEAN) {
-			return cellValue.getBooleanValue() ? "True" : "False";
+			return cellValue.getBooleanValue();
 		}
 		return null;
 	}
 
+	/**
+	 * 获取数值，日期格式的单元格返回日期
+	 *
+	 * @param cell
+	 * @param value
+	 * @return
+	 */
+	private Object getNumberValue(Cell cell, double value) {
+		CellStyle style = cell.getCellStyle();
+		if (style != null && DateUtil.isValidExcelDate(value) && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())) {
+			return DateUtil.getJavaDate(value, false);
+		}
+		return value;
+	}
+
+	/**
+	 * 去掉文本两端的空白，空文本返回null
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static Object trimToNull(Object value) {
+		return value instanceof String ? StringUtils.trimToNull((String) value) : value;
+	}
+
+	private static boolean isEmpty(Object value) {
+		return value == null || "".equals(value);
+	}
+
 	public int getDataNum() {
 		return dataNum;
 	}
@@ -0,0 +1,178 @@
+package cn.excel.imp;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 导入文档来源，按文件头而不是扩展名识别xls/xlsx<br/>
+ * 本地文件直接交给POI按文件打开(xls内存映射、xlsx随机读取zip条目)，不再整体读入内存：流式读取时只读打开原文件，
+ * 打开工作薄时打开文件的临时副本；<br/>
+ * 流只能顺序读取，由POI读入内存，流由调用方关闭
+ *
+ * @author yutyi
+ */
+final class ExcelSource {
+
+	/**
+	 * 本地文件，来源为流时为null
+	 */
+	private final File file;
+
+	private InputStream stream;
+
+	private final String name;
+
+	/**
+	 * 打开工作薄时使用的临时副本，关闭工作薄时删除
+	 */
+	private File copy;
+
+	private ExcelSource(File file, InputStream stream, String name) {
+		this.file = file;
+		this.stream = stream;
+		this.name = name;
+	}
+
+	static ExcelSource of(String filepath) {
+		if (filepath == null || filepath.trim().isEmpty()) {
+			throw new RuntimeException("导入文档为空!");
+		}
+		return new ExcelSource(new File(filepath), null, filepath);
+	}
+
+	static ExcelSource of(Path path) {
+		if (path == null) {
+			throw new RuntimeException("导入文档为空!");
+		}
+		return new ExcelSource(path.toFile(), null, path.toString());
+	}
+
+	static ExcelSource of(InputStream stream) {
+		if (stream == null) {
+			throw new RuntimeException("导入文档为空!");
+		}
+		return new ExcelSource(null, stream, "InputStream");
+	}
+
+	static ExcelSource of(byte[] bytes) {
+		if (bytes == null || bytes.length == 0) {
+			throw new RuntimeException("导入文档为空!");
+		}
+		return new ExcelSource(null, new ByteArrayInputStream(bytes), "byte[" + bytes.length + "]");
+	}
+
+	static ExcelSource of(ReadableByteChannel channel) {
+		if (channel == null) {
+			throw new RuntimeException("导入文档为空!");
+		}
+		return new ExcelSource(null, Channels.newInputStream(channel), "ReadableByteChannel");
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * 识别文档格式
+	 *
+	 * @return OLE2(xls)或OOXML(xlsx)
+	 * @throws IOException
+	 *             其他格式
+	 */
+	private FileMagic detect() throws IOException {
+		FileMagic magic;
+		if (file != null) {
+			try (InputStream is = FileMagic.prepareToCheckMagic(new FileInputStream(file))) {
+				magic = FileMagic.valueOf(is);
+			}
+		} else {
+			// 识别时读取的文件头通过mark/reset退回流中
+			stream = FileMagic.prepareToCheckMagic(stream);
+			magic = FileMagic.valueOf(stream);
+		}
+		if (magic != FileMagic.OLE2 && magic != FileMagic.OOXML) {
+			throw new IOException("不支持的文档格式：" + magic);
+		}
+		return magic;
+	}
+
+	/**
+	 * 打开工作薄，关闭时使用{@link #close(Workbook)}<br/>
+	 * 工作薄可能标记错误后写出(包括写回原文件)，xlsx写出时需要可写的包，因此本地文件先复制为临时文件，
+	 * 按临时文件打开(不读入内存)，修改和写出都不会影响原文件，也不保留原文件的句柄
+	 *
+	 * @return
+	 * @throws IOException
+	 * @throws InvalidFormatException
+	 */
+	Workbook openWorkbook() throws IOException, InvalidFormatException {
+		FileMagic magic = this.detect();
+		if (file == null) {
+			return WorkbookFactory.create(stream);
+		}
+		copy = File.createTempFile("excel-import", magic == FileMagic.OLE2 ? ".xls" : ".xlsx");
+		copy.deleteOnExit();
+		try {
+			Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			// xls只读打开(写出时生成新文档)，xlsx写出时保存包，需要可写
+			return WorkbookFactory.create(copy, null, magic == FileMagic.OLE2);
+		} catch (IOException | InvalidFormatException | RuntimeException ex) {
+			this.deleteCopy();
+			throw ex;
+		}
+	}
+
+	/**
+	 * 打开流式读取器
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	SheetReader openReader() throws IOException {
+		FileMagic magic = this.detect();
+		if (magic == FileMagic.OLE2) {
+			return file != null ? new XlsStreamReader(file) : new XlsStreamReader(stream);
+		}
+		return file != null ? new XlsxStreamReader(file) : new XlsxStreamReader(stream);
+	}
+
+	/**
+	 * 关闭工作薄并删除临时副本，xlsx丢弃未保存的修改
+	 *
+	 * @param wb
+	 */
+	void close(Workbook wb) {
+		if (wb instanceof XSSFWorkbook) {
+			((XSSFWorkbook) wb).getPackage().revert();
+		} else {
+			IOUtils.closeQuietly(wb);
+		}
+		this.deleteCopy();
+	}
+
+	/**
+	 * 删除临时副本，Windows上内存映射未解除时推迟到虚拟机退出(deleteOnExit)
+	 */
+	private void deleteCopy() {
+		if (copy != null) {
+			copy.delete();
+			copy = null;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package cn.excel.imp;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入的一行数据及其检查结果
+ *
+ * @author yutyi
+ */
+public class ImportRow<E> {
+
+	/**
+	 * 行号(0-based)
+	 */
+	private final int rowIndex;
+
+	/**
+	 * 行数据，key为属性名，值为String、Double、Boolean或Date
+	 */
+	private final Map<String, Object> data;
+
+	/**
+	 * 实体对象，检查未通过时为null
+	 */
+	private final E entity;
+
+	/**
+	 * 检查错误
+	 */
+	private final List<CellError> errors;
+
+	public ImportRow(int rowIndex, Map<String, Object> data, E entity, List<CellError> errors) {
+		this.rowIndex = rowIndex;
+		this.data = data;
+		this.entity = entity;
+		this.errors = errors;
+	}
+
+	public int getRowIndex() {
+		return rowIndex;
+	}
+
+	public Map<String, Object> getData() {
+		return data;
+	}
+
+	public E getEntity() {
+		return entity;
+	}
+
+	public List<CellError> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * 是否检查通过
+	 *
+	 * @return
+	 */
+	public boolean isValid() {
+		return errors.isEmpty();
+	}
+}
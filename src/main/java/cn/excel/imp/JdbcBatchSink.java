@@ -0,0 +1,98 @@
+package cn.excel.imp;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * JDBC批量写入，每批数据通过PreparedStatement.addBatch/executeBatch一次提交<br/>
+ * 事务由调用方控制，使用完需调用close()释放语句
+ *
+ * <example>
+ *
+ *   try (JdbcBatchSink<User> sink = new JdbcBatchSink<>(connection, "insert into t_user(code, name) values(?, ?)", (ps, user) -> {
+ *       ps.setString(1, user.getCode());
+ *       ps.setString(2, user.getName());
+ *   })) {
+ *       excelImport.read(User.class, 1000, sink);
+ *   }
+ *
+ * </example>
+ * @author yutyi
+ */
+public class JdbcBatchSink<E> implements BatchSink<E>, Closeable {
+
+	private final Connection connection;
+
+	private final String sql;
+
+	private final StatementBinder<E> binder;
+
+	private PreparedStatement statement;
+
+	/**
+	 * 已写入的行数
+	 */
+	private long count;
+
+	/**
+	 * 
+	 * @param connection
+	 *            数据库连接
+	 * @param sql
+	 *            插入或更新语句
+	 * @param binder
+	 *            参数绑定
+	 */
+	public JdbcBatchSink(Connection connection, String sql, StatementBinder<E> binder) {
+		this.connection = connection;
+		this.sql = sql;
+		this.binder = binder;
+	}
+
+	@Override
+	public void accept(List<E> batch) throws SQLException {
+		if (statement == null) {
+			statement = connection.prepareStatement(sql);
+		}
+		for (E entity : batch) {
+			binder.bind(statement, entity);
+			statement.addBatch();
+		}
+		statement.executeBatch();
+		count += batch.size();
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public void close() {
+		if (statement != null) {
+			try {
+				statement.close();
+			} catch (SQLException ex) {
+				// ignore
+			}
+			statement = null;
+		}
+	}
+
+	/**
+	 * 语句参数绑定
+	 */
+	public interface StatementBinder<E> {
+
+		/**
+		 * 将实体对象的属性设置到语句参数
+		 *
+		 * @param statement
+		 * @param entity
+		 * @throws SQLException
+		 */
+		void bind(PreparedStatement statement, E entity) throws SQLException;
+	}
+}
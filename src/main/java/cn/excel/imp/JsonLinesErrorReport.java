@@ -0,0 +1,48 @@
+package cn.excel.imp;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Lines格式的错误报告，每个错误一行：{"sheet":"华东","row":1,"column":1,"field":"code","message":"不允许空"}<br/>
+ * sheet只在多工作表导入时输出，行号、列号从1开始
+ *
+ * @author yutyi
+ */
+public class JsonLinesErrorReport implements ErrorReport {
+
+	private final Writer writer;
+
+	public JsonLinesErrorReport(OutputStream os) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void write(int rowIndex, Map<String, Object> data, List<CellError> errors) throws IOException {
+		for (CellError error : errors) {
+			JSONObject obj = new JSONObject(true);
+			if (error.getSheetName() != null) {
+				obj.put("sheet", error.getSheetName());
+			}
+			obj.put("row", error.getRowIndex() + 1);
+			obj.put("column", error.getColumnIndex() + 1);
+			obj.put("field", error.getFieldName());
+			obj.put("message", error.getMessage());
+			writer.write(obj.toJSONString());
+			writer.write('\n');
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
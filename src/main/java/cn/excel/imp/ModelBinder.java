@@ -0,0 +1,86 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
+import cn.excel.util.Converter;
+import cn.excel.util.Converters;
+import cn.excel.util.Property;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * 实体绑定器，属性setter由ExcelSchema解析并缓存，这里只按实体类型选好转换器
+ *
+ * @author yutyi
+ */
+class ModelBinder<E> {
+
+	private Constructor<E> constructor;
+
+	private final String[] fieldNames;
+
+	/**
+	 * 实体属性，不存在的属性为null
+	 */
+	private final Property[] properties;
+
+	private final Converter[] converters;
+
+	/**
+	 * 
+	 * @param clazz
+	 *            实体类型
+	 * @param schema
+	 *            列定义
+	 */
+	ModelBinder(Class<E> clazz, ExcelSchema schema) {
+		try {
+			this.constructor = clazz.getDeclaredConstructor();
+			this.constructor.setAccessible(true);
+		} catch (NoSuchMethodException ex) {
+			// 创建实例时报错
+		}
+		int columnCount = schema.size();
+		this.fieldNames = new String[columnCount];
+		this.properties = schema.getProperties(clazz);
+		this.converters = new Converter[columnCount];
+		for (ExcelColumn column : schema.getColumns()) {
+			int i = column.getIndex();
+			Property property = properties[i];
+			fieldNames[i] = column.getName();
+			converters[i] = property == null ? null : clazz == schema.getType() ? column.getConverter() : Converters.forType(property.getType());
+		}
+	}
+
+	E newInstance() throws InstantiationException, IllegalAccessException, InvocationTargetException {
+		if (constructor == null) {
+			throw new InstantiationException("缺少无参构造方法");
+		}
+		return constructor.newInstance();
+	}
+
+	/**
+	 * 设置属性值，值为空或转换后为空时忽略
+	 *
+	 * @param entity
+	 * @param index
+	 *            列下标
+	 * @param value
+	 */
+	void set(E entity, int index, Object value) {
+		Property property = properties[index];
+		if (property == null || value == null) {
+			return;
+		}
+		Object propertyValue;
+		try {
+			propertyValue = converters[index].convert(value);
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("属性" + fieldNames[index] + "转换失败：" + ex.getMessage(), ex);
+		}
+		if (propertyValue != null) {
+			property.set(entity, propertyValue);
+		}
+	}
+}
@@ -0,0 +1,305 @@
+package cn.excel.imp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多工作表导入，按名称或索引为工作表指定实体类型<br/>
+ * 所有工作表共用一次打开的文档和共享字符串表，xlsx的工作表在有界线程池中并行解析，xls按顺序解析<br/>
+ * 每个工作表单独检查（唯一性只在工作表内检查），错误带有工作表名称<br/>
+ * 每个工作表单独获取HandleField，工厂返回共用的实例(如容器中的单例)时，该实例需线程安全
+ *
+ * <example>
+ *
+ *   try (MultiSheetImport multiImport = new MultiSheetImport(filepath)) {
+ *       multiImport.addSheet("华东", User.class, 1);
+ *       multiImport.addSheet("华南", User.class, 1);
+ *       List<SheetResult<?>> results = multiImport.read();
+ *       List<User> users = MultiSheetImport.getModelList(results, User.class);
+ *   }
+ *
+ * </example>
+ * @author yutyi
+ */
+public class MultiSheetImport implements Closeable {
+
+	private final static Logger logger = LoggerFactory.getLogger(MultiSheetImport.class);
+
+	/**
+	 * 共用的流式读取器
+	 */
+	private final SheetReader reader;
+
+	/**
+	 * 工作表名称
+	 */
+	private final List<String> sheetNames;
+
+	/**
+	 * 传递的参数
+	 */
+	private final Object params;
+
+	/**
+	 * 待读取的工作表
+	 */
+	private final List<SheetDef> sheets = new ArrayList<>();
+
+	/**
+	 * 所有工作表共用的错误报告，多个线程写入时按行加锁
+	 */
+	private ErrorReport errorReport;
+
+	/**
+	 * 并行解析的线程数
+	 */
+	private int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	public MultiSheetImport(String filepath) {
+		this(filepath, null);
+	}
+
+	/**
+	 * 
+	 * @param filepath
+	 *            xls或xlsx文件
+	 * @param params
+	 *            传递给HandleField的参数
+	 */
+	public MultiSheetImport(String filepath, Object params) {
+		logger.info("==>  Excel文件地址：{}", filepath);
+		ExcelSource source = ExcelSource.of(filepath);
+		this.params = params;
+		try {
+			this.reader = source.openReader();
+			this.sheetNames = reader.getSheetNames();
+		} catch (Exception ex) {
+			this.close();
+			throw new RuntimeException("文档格式不正确!", ex);
+		}
+	}
+
+	/**
+	 * 按名称添加工作表
+	 *
+	 * @param sheetName
+	 *            工作表名称
+	 * @param clazz
+	 *            实体类型
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @return
+	 */
+	public MultiSheetImport addSheet(String sheetName, Class<?> clazz, int dataIndex) {
+		int sheetIndex = sheetNames.indexOf(sheetName);
+		if (sheetIndex < 0) {
+			throw new RuntimeException("工作表不存在：" + sheetName);
+		}
+		return this.addSheet(sheetIndex, clazz, dataIndex);
+	}
+
+	/**
+	 * 按索引添加工作表
+	 *
+	 * @param sheetIndex
+	 *            工作表索引(0-based)
+	 * @param clazz
+	 *            实体类型
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @return
+	 */
+	public MultiSheetImport addSheet(int sheetIndex, Class<?> clazz, int dataIndex) {
+		if (sheetIndex < 0 || sheetIndex >= sheetNames.size()) {
+			throw new RuntimeException("工作表不存在：" + sheetIndex);
+		}
+		sheets.add(new SheetDef(sheetIndex, clazz, dataIndex));
+		return this;
+	}
+
+	/**
+	 * 添加所有工作表，使用同一实体类型
+	 *
+	 * @param clazz
+	 *            实体类型
+	 * @param dataIndex
+	 *            数据列从1开始
+	 * @return
+	 */
+	public MultiSheetImport addAllSheets(Class<?> clazz, int dataIndex) {
+		for (int i = 0; i < sheetNames.size(); i++) {
+			this.addSheet(i, clazz, dataIndex);
+		}
+		return this;
+	}
+
+	/**
+	 * 设置并行解析的线程数，默认为处理器数与4的较小值
+	 *
+	 * @param threads
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads必须大于0");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * 设置错误报告，所有工作表的错误写入同一报告，错误带有工作表名称<br/>
+	 * 工作表并行读取时不同工作表的行交错写入，报告由调用方关闭
+	 *
+	 * @param errorReport
+	 */
+	public void setErrorReport(ErrorReport errorReport) {
+		this.errorReport = errorReport == null ? null : new SynchronizedReport(errorReport);
+	}
+
+	public List<String> getSheetNames() {
+		return sheetNames;
+	}
+
+	/**
+	 * 读取并检查所有添加的工作表<br/>
+	 * 任一工作表读取失败时抛出异常，其他工作表的结果丢弃
+	 *
+	 * @return 按添加顺序排列的工作表结果
+	 */
+	public List<SheetResult<?>> read() {
+		if (sheets.isEmpty()) {
+			throw new RuntimeException("未添加需要导入的工作表");
+		}
+		int poolSize = reader.isConcurrent() ? Math.min(threads, sheets.size()) : 1;
+		AtomicInteger threadIndex = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+			Thread thread = new Thread(runnable, "excel-sheet-reader-" + threadIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<SheetResult<?>>> futures = new ArrayList<>();
+			for (SheetDef sheet : sheets) {
+				futures.add(executor.submit(() -> this.readSheet(sheet)));
+			}
+			List<SheetResult<?>> results = new ArrayList<>();
+			for (Future<SheetResult<?>> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("读取工作表被中断", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException("读取工作表失败", cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private <E> SheetResult<E> readSheet(SheetDef sheet) {
+		@SuppressWarnings("unchecked")
+		Class<E> clazz = (Class<E>) sheet.clazz;
+		String sheetName = sheetNames.get(sheet.sheetIndex);
+		SheetResult<E> result = new SheetResult<>(sheet.sheetIndex, sheetName, clazz);
+		ExcelImport excelImport = new ExcelImport(clazz, sheet.dataIndex, params, reader, sheet.sheetIndex, sheetName);
+		excelImport.setErrorReport(errorReport);
+		excelImport.read(clazz, result::add);
+		return result;
+	}
+
+	/**
+	 * 合并多个工作表中指定类型的实体对象，按工作表添加顺序排列
+	 *
+	 * @param results
+	 * @param clazz
+	 *            实体类型
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<E> getModelList(List<SheetResult<?>> results, Class<E> clazz) {
+		List<E> list = new ArrayList<>();
+		for (SheetResult<?> result : results) {
+			if (result.getType() == clazz) {
+				list.addAll((List<E>) result.getEntities());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * 合并多个工作表的检查错误
+	 *
+	 * @param results
+	 * @return
+	 */
+	public static List<CellError> getErrors(List<SheetResult<?>> results) {
+		List<CellError> errors = new ArrayList<>();
+		for (SheetResult<?> result : results) {
+			errors.addAll(result.getErrors());
+		}
+		return errors;
+	}
+
+	@Override
+	public void close() {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (IOException ex) {
+				logger.warn("关闭文档失败", ex);
+			}
+		}
+	}
+
+	/**
+	 * 工作表定义
+	 */
+	private static class SheetDef {
+
+		private final int sheetIndex;
+
+		private final Class<?> clazz;
+
+		private final int dataIndex;
+
+		SheetDef(int sheetIndex, Class<?> clazz, int dataIndex) {
+			this.sheetIndex = sheetIndex;
+			this.clazz = clazz;
+			this.dataIndex = dataIndex;
+		}
+	}
+
+	/**
+	 * 多个工作表同时写入的错误报告，一行的错误连续写入
+	 */
+	private static class SynchronizedReport implements ErrorReport {
+
+		private final ErrorReport report;
+
+		SynchronizedReport(ErrorReport report) {
+			this.report = report;
+		}
+
+		@Override
+		public synchronized void write(int rowIndex, Map<String, Object> data, List<CellError> errors) throws IOException {
+			report.write(rowIndex, data, errors);
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			report.close();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package cn.excel.imp;
+
+/**
+ * 行数据处理器，流式读取时每读完一行回调一次
+ *
+ * @author yutyi
+ */
+public interface RowHandler {
+
+	/**
+	 * 处理一行数据
+	 *
+	 * @param rowIndex
+	 *            行号(0-based)
+	 * @param values
+	 *            单元格值，下标为列定义下标，空单元格为null；解析列头前下标为列号，长度可能小于实际列数，超出部分为空单元格；<br/>
+	 *            值为单元格的原始类型：文本为String，数值为Double，布尔为Boolean，日期格式的数值为Date
+	 */
+	void handle(int rowIndex, Object[] values);
+}
@@ -0,0 +1,119 @@
+package cn.excel.imp;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入行迭代器，后台线程推送的行数据经有界队列转为拉取，读取速度受消费速度限制
+ *
+ * @author yutyi
+ */
+public class RowIterator<E> implements Iterator<ImportRow<E>>, Closeable {
+
+	/**
+	 * 队列容量
+	 */
+	private static final int CAPACITY = 256;
+
+	/**
+	 * 读取结束标记
+	 */
+	private static final Object END = new Object();
+
+	private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(CAPACITY);
+
+	private Object next;
+
+	private volatile boolean closed;
+
+	RowIterator(ExcelImport excelImport, Class<E> clazz) {
+		Thread thread = new Thread(() -> {
+			try {
+				excelImport.read(clazz, this::put);
+				this.put(END);
+			} catch (CancellationException ex) {
+				// 迭代器已关闭
+			} catch (Throwable ex) {
+				// 包括Error在内都要交给消费方，否则消费方会一直等待
+				this.put(new Failure(ex));
+			}
+		}, "excel-import-reader");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void put(Object element) {
+		try {
+			while (!closed) {
+				if (queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		throw new CancellationException("导入已取消");
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			if (closed) {
+				return false;
+			}
+			try {
+				next = queue.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("读取导入数据被中断", ex);
+			}
+		}
+		if (next instanceof Failure) {
+			Throwable exception = ((Failure) next).exception;
+			if (exception instanceof RuntimeException) {
+				throw (RuntimeException) exception;
+			} else if (exception instanceof Error) {
+				throw (Error) exception;
+			}
+			throw new RuntimeException("读取导入数据失败", exception);
+		}
+		return next != END;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ImportRow<E> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ImportRow<E> row = (ImportRow<E>) next;
+		next = null;
+		return row;
+	}
+
+	/**
+	 * 结束读取，未读取的行将被丢弃
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		queue.clear();
+	}
+
+	/**
+	 * 读取失败时传递异常
+	 */
+	private static class Failure {
+
+		private final Throwable exception;
+
+		Failure(Throwable exception) {
+			this.exception = exception;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package cn.excel.imp;
+
+/**
+ * 导入行监听器，每处理完一行数据回调一次
+ *
+ * @author yutyi
+ */
+public interface RowListener<E> {
+
+	/**
+	 * 处理一行数据
+	 *
+	 * @param row
+	 *            行数据及检查结果
+	 */
+	void onRow(ImportRow<E> row);
+}
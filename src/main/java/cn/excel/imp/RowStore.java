@@ -0,0 +1,431 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelColumn;
+import cn.excel.ExcelSchema;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 按列存储的导入数据，用于需要保留全部行的读取(validate()、getModelList())<br/>
+ * 空值用位图标记；数值存double的位、日期存毫秒数、布尔存0/1，都放在long数组中；<br/>
+ * 文本及其他值按字典编码只存编号，不同值过多时不再去重。行数据通过Map视图访问，不为每行创建HashMap<br/>
+ * 加载完成后只读时可以在多个线程中同时读取
+ *
+ * @author yutyi
+ */
+final class RowStore {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final ExcelSchema schema;
+
+	private final Column[] columns;
+
+	/**
+	 * 列定义之外的属性(如HandleField在检查时设置的值)，key为数据下标，只保存设置过的行
+	 */
+	private final Map<Integer, Map<String, Object>> extras = new HashMap<>();
+
+	private int size;
+
+	RowStore(ExcelSchema schema) {
+		this.schema = schema;
+		this.columns = new Column[schema.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = new Column();
+		}
+	}
+
+	/**
+	 * 追加一行
+	 *
+	 * @param values
+	 *            下标为列号，空行为null
+	 */
+	void add(Object[] values) {
+		int row = size++;
+		if (values != null) {
+			for (int i = 0; i < columns.length; i++) {
+				if (values[i] != null) {
+					columns[i].set(row, values[i], size);
+				}
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * 是否空行
+	 *
+	 * @param row
+	 *            数据下标
+	 * @return
+	 */
+	boolean isEmpty(int row) {
+		for (Column column : columns) {
+			if (column.isPresent(row)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 获取值
+	 *
+	 * @param row
+	 *            数据下标
+	 * @param column
+	 *            列号
+	 * @return String、Double、Boolean或Date，空值为null
+	 */
+	Object get(int row, int column) {
+		return columns[column].get(row);
+	}
+
+	/**
+	 * 行数据的Map视图，key为属性名，写入的值保存在列存储中，同一行的视图之间共享
+	 *
+	 * @param row
+	 *            数据下标
+	 * @return
+	 */
+	Map<String, Object> row(int row) {
+		return new RowView(row);
+	}
+
+	/**
+	 * 一列的数据
+	 */
+	private static final class Column {
+
+		private static final byte NUMBER = 1;
+
+		private static final byte BOOLEAN = 2;
+
+		private static final byte DATE = 3;
+
+		/**
+		 * 文本及其他类型的值，存放在values中
+		 */
+		private static final byte REF = 4;
+
+		/**
+		 * 值类型不一致，每个值的类型存放在kinds中
+		 */
+		private static final byte MIXED = -1;
+
+		/**
+		 * 字典不同值超过此数量且超过行数一半时不再去重
+		 */
+		private static final int DICTIONARY_LIMIT = 1024;
+
+		/**
+		 * 非空值位图
+		 */
+		private long[] present = new long[INITIAL_CAPACITY >> 6];
+
+		/**
+		 * 所有值的类型，0表示还没有值
+		 */
+		private byte kind;
+
+		private byte[] kinds;
+
+		private long[] numbers;
+
+		/**
+		 * 值在values中的编号
+		 */
+		private int[] refs;
+
+		private final List<Object> values = new ArrayList<>();
+
+		/**
+		 * 值到编号的字典，不再去重时为null
+		 */
+		private Map<Object, Integer> dictionary = new HashMap<>();
+
+		boolean isPresent(int row) {
+			int word = row >>> 6;
+			return word < present.length && (present[word] & (1L << row)) != 0;
+		}
+
+		Object get(int row) {
+			if (!this.isPresent(row)) {
+				return null;
+			}
+			switch (kinds == null ? kind : kinds[row]) {
+			case NUMBER:
+				return Double.longBitsToDouble(numbers[row]);
+			case BOOLEAN:
+				return numbers[row] != 0;
+			case DATE:
+				return new Date(numbers[row]);
+			default:
+				return values.get(refs[row]);
+			}
+		}
+
+		/**
+		 * 设置值
+		 *
+		 * @param row
+		 * @param value
+		 * @param rowCount
+		 *            当前行数，用于判断字典是否还有效
+		 */
+		void set(int row, Object value, int rowCount) {
+			int word = row >>> 6;
+			if (value == null) {
+				if (word < present.length) {
+					present[word] &= ~(1L << row);
+				}
+				return;
+			}
+			if (word >= present.length) {
+				present = Arrays.copyOf(present, Math.max(present.length * 2, word + 1));
+			}
+			present[word] |= 1L << row;
+
+			byte valueKind;
+			if (value instanceof Double) {
+				valueKind = NUMBER;
+				this.numbers(row)[row] = Double.doubleToRawLongBits((Double) value);
+			} else if (value instanceof Boolean) {
+				valueKind = BOOLEAN;
+				this.numbers(row)[row] = (Boolean) value ? 1 : 0;
+			} else if (value.getClass() == Date.class) {
+				valueKind = DATE;
+				this.numbers(row)[row] = ((Date) value).getTime();
+			} else {
+				valueKind = REF;
+				this.refs(row)[row] = this.ref(value, rowCount);
+			}
+
+			if (kind == 0) {
+				kind = valueKind;
+			} else if (kind != valueKind && kind != MIXED) {
+				// 出现第二种类型，之前的值都是原类型
+				kinds = new byte[capacity(row)];
+				Arrays.fill(kinds, kind);
+				kind = MIXED;
+			}
+			if (kinds != null) {
+				if (row >= kinds.length) {
+					kinds = Arrays.copyOf(kinds, capacity(row));
+				}
+				kinds[row] = valueKind;
+			}
+		}
+
+		private int ref(Object value, int rowCount) {
+			if (dictionary != null) {
+				Integer ref = dictionary.get(value);
+				if (ref != null) {
+					return ref;
+				}
+				if (dictionary.size() >= DICTIONARY_LIMIT && dictionary.size() > rowCount / 2) {
+					// 不同值太多，字典不能减少内存，已有编号仍然有效
+					dictionary = null;
+				} else {
+					dictionary.put(value, values.size());
+				}
+			}
+			values.add(value);
+			return values.size() - 1;
+		}
+
+		private long[] numbers(int row) {
+			if (numbers == null) {
+				numbers = new long[capacity(row)];
+			} else if (row >= numbers.length) {
+				numbers = Arrays.copyOf(numbers, capacity(row));
+			}
+			return numbers;
+		}
+
+		private int[] refs(int row) {
+			if (refs == null) {
+				refs = new int[capacity(row)];
+			} else if (row >= refs.length) {
+				refs = Arrays.copyOf(refs, capacity(row));
+			}
+			return refs;
+		}
+
+		/**
+		 * 容纳指定行所需的数组长度，按2的幂增长
+		 */
+		private static int capacity(int row) {
+			return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(row) << 1);
+		}
+	}
+
+	/**
+	 * 行数据视图，列定义之外的属性存放在extras中
+	 */
+	private final class RowView extends AbstractMap<String, Object> {
+
+		private final int row;
+
+		RowView(int row) {
+			this.row = row;
+		}
+
+		/**
+		 * 列定义之外的属性，该行没有时为null
+		 */
+		private Map<String, Object> extra() {
+			return extras.get(row);
+		}
+
+		private ExcelColumn column(Object key) {
+			return key instanceof String ? schema.getColumn((String) key) : null;
+		}
+
+		@Override
+		public Object get(Object key) {
+			ExcelColumn column = this.column(key);
+			if (column == null) {
+				Map<String, Object> extra = this.extra();
+				return extra == null ? null : extra.get(key);
+			}
+			return RowStore.this.get(row, column.getIndex());
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			ExcelColumn column = this.column(key);
+			if (column == null) {
+				Map<String, Object> extra = this.extra();
+				return extra != null && extra.containsKey(key);
+			}
+			return columns[column.getIndex()].isPresent(row);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			Map<String, Object> extra = this.extra();
+			return RowStore.this.isEmpty(row) && (extra == null || extra.isEmpty());
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			ExcelColumn column = schema.getColumn(key);
+			if (column == null) {
+				return extras.computeIfAbsent(row, k -> new HashMap<>()).put(key, value);
+			}
+			Object old = RowStore.this.get(row, column.getIndex());
+			columns[column.getIndex()].set(row, value, size);
+			return old;
+		}
+
+		@Override
+		public Object remove(Object key) {
+			ExcelColumn column = this.column(key);
+			if (column == null) {
+				Map<String, Object> extra = this.extra();
+				return extra == null ? null : extra.remove(key);
+			}
+			Object old = RowStore.this.get(row, column.getIndex());
+			columns[column.getIndex()].set(row, null, size);
+			return old;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new Iterator<Entry<String, Object>>() {
+
+						private int next = this.find(0);
+
+						/**
+						 * 列存储之后遍历的额外属性
+						 */
+						private Iterator<Entry<String, Object>> extraIterator;
+
+						/**
+						 * 上一次返回的列号，额外属性为-1
+						 */
+						private int last = -2;
+
+						private int find(int from) {
+							while (from < columns.length && !columns[from].isPresent(row)) {
+								from++;
+							}
+							return from;
+						}
+
+						private Iterator<Entry<String, Object>> extraIterator() {
+							if (extraIterator == null) {
+								Map<String, Object> extra = RowView.this.extra();
+								extraIterator = extra == null ? Collections.emptyIterator() : extra.entrySet().iterator();
+							}
+							return extraIterator;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < columns.length || this.extraIterator().hasNext();
+						}
+
+						@Override
+						public Entry<String, Object> next() {
+							if (next >= columns.length) {
+								Entry<String, Object> entry = this.extraIterator().next();
+								last = -1;
+								return new SimpleImmutableEntry<>(entry);
+							}
+							int column = next;
+							next = this.find(next + 1);
+							last = column;
+							return new SimpleImmutableEntry<>(schema.getColumn(column).getName(), RowStore.this.get(row, column));
+						}
+
+						@Override
+						public void remove() {
+							if (last == -1) {
+								extraIterator.remove();
+							} else if (last >= 0) {
+								columns[last].set(row, null, size);
+							} else {
+								throw new IllegalStateException();
+							}
+							last = -2;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					Map<String, Object> extra = RowView.this.extra();
+					int count = extra == null ? 0 : extra.size();
+					for (Column column : columns) {
+						if (column.isPresent(row)) {
+							count++;
+						}
+					}
+					return count;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package cn.excel.imp;
+
+import org.apache.poi.util.SAXHelper;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * xlsx共享字符串表，字符串按UTF-8编码顺序存放，只保留每个字符串的起始位置，读取时才解码<br/>
+ * 编码后的字节超出内存预算后转存到临时文件并通过内存映射读取，堆内存只占每个字符串8字节的索引<br/>
+ * 加载完成后只读，可以在多个线程中同时读取
+ *
+ * @author yutyi
+ */
+class SharedStrings implements Closeable {
+
+	/**
+	 * 内存映射单个缓冲区的字节数
+	 */
+	private static final int CHUNK_SIZE = 1 << 30;
+
+	/**
+	 * 内存预算(字节)
+	 */
+	private final long memoryBudget;
+
+	/**
+	 * 每个字符串的起始位置，最后一个之后为结束位置
+	 */
+	private long[] offsets = new long[1024];
+
+	private int count;
+
+	/**
+	 * 已写入的字节数
+	 */
+	private long size;
+
+	/**
+	 * 未超出内存预算时的存储
+	 */
+	private byte[] bytes = new byte[8192];
+
+	/**
+	 * 超出内存预算后的临时文件
+	 */
+	private File file;
+
+	private OutputStream out;
+
+	private ByteBuffer[] chunks;
+
+	/**
+	 *
+	 * @param memoryBudget
+	 *            内存预算(字节)，超出后使用临时文件
+	 */
+	SharedStrings(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * 解析sharedStrings.xml，富文本取所有文本段拼接的结果，与ReadOnlySharedStringsTable一致
+	 *
+	 * @param is
+	 * @throws IOException
+	 */
+	void load(InputStream is) throws IOException {
+		try {
+			XMLReader parser = SAXHelper.newXMLReader();
+			parser.setContentHandler(new DefaultHandler() {
+
+				private final StringBuilder text = new StringBuilder();
+
+				private boolean inText;
+
+				@Override
+				public void startElement(String uri, String localName, String qName, Attributes attributes) {
+					if ("si".equals(localName)) {
+						text.setLength(0);
+					} else if ("t".equals(localName)) {
+						inText = true;
+					}
+				}
+
+				@Override
+				public void endElement(String uri, String localName, String qName) throws SAXException {
+					if ("si".equals(localName)) {
+						try {
+							add(text.toString());
+						} catch (IOException ex) {
+							throw new SAXException(ex);
+						}
+					} else if ("t".equals(localName)) {
+						inText = false;
+					}
+				}
+
+				@Override
+				public void characters(char[] ch, int start, int length) {
+					if (inText) {
+						text.append(ch, start, length);
+					}
+				}
+			});
+			parser.parse(new InputSource(is));
+			this.finish();
+		} catch (SAXException | ParserConfigurationException ex) {
+			throw new IOException("xlsx共享字符串表解析失败", ex);
+		}
+	}
+
+	/**
+	 * 获取字符串
+	 *
+	 * @param index
+	 *            字符串序号
+	 * @return
+	 */
+	String get(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("共享字符串不存在：" + index);
+		}
+		long start = offsets[index];
+		int length = (int) (offsets[index + 1] - start);
+		if (chunks == null) {
+			return new String(bytes, (int) start, length, StandardCharsets.UTF_8);
+		}
+		byte[] dst = new byte[length];
+		for (int copied = 0; copied < length;) {
+			long position = start + copied;
+			// 共用的缓冲区不能修改position，每次读取复制一个视图
+			ByteBuffer chunk = chunks[(int) (position / CHUNK_SIZE)].duplicate();
+			chunk.position((int) (position % CHUNK_SIZE));
+			int n = Math.min(length - copied, chunk.remaining());
+			chunk.get(dst, copied, n);
+			copied += n;
+		}
+		return new String(dst, StandardCharsets.UTF_8);
+	}
+
+	int size() {
+		return count;
+	}
+
+	private void add(String value) throws IOException {
+		byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+		if (count + 1 >= offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		offsets[count++] = size;
+		if (out == null && size + encoded.length > memoryBudget) {
+			this.spill();
+		}
+		if (out != null) {
+			out.write(encoded);
+		} else {
+			if (size + encoded.length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, (int) Math.min(Math.max(bytes.length * 2L, size + encoded.length), memoryBudget));
+			}
+			System.arraycopy(encoded, 0, bytes, (int) size, encoded.length);
+		}
+		size += encoded.length;
+	}
+
+	/**
+	 * 转存到临时文件
+	 */
+	private void spill() throws IOException {
+		file = File.createTempFile("excel-sst", ".dat");
+		file.deleteOnExit();
+		out = new BufferedOutputStream(new FileOutputStream(file), 65536);
+		out.write(bytes, 0, (int) size);
+		bytes = null;
+	}
+
+	private void finish() throws IOException {
+		offsets[count] = size;
+		offsets = Arrays.copyOf(offsets, count + 1);
+		if (out == null) {
+			bytes = Arrays.copyOf(bytes, (int) size);
+			return;
+		}
+		out.close();
+		out = null;
+		chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			for (int i = 0; i < chunks.length; i++) {
+				long position = (long) i * CHUNK_SIZE;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		chunks = null;
+		bytes = null;
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ex) {
+				// 忽略
+			}
+			out = null;
+		}
+		if (file != null) {
+			// 映射在缓冲区被回收后释放，部分系统上此时才能删除
+			file.delete();
+			file = null;
+		}
+	}
+}
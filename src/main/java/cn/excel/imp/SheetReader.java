@@ -0,0 +1,43 @@
+package cn.excel.imp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 工作表流式读取器，不构建整个工作薄对象，内存占用与行数无关
+ *
+ * @author yutyi
+ */
+public interface SheetReader extends Closeable {
+
+	/**
+	 * 逐行读取工作表
+	 *
+	 * @param sheetIndex
+	 *            工作表索引(0-based)
+	 * @param columns
+	 *            列对应关系，没有对应列定义的单元格不解析；行处理器中可以修改
+	 * @param handler
+	 *            行处理器，行数据下标为列定义下标
+	 * @throws IOException
+	 */
+	void read(int sheetIndex, ColumnMap columns, RowHandler handler) throws IOException;
+
+	/**
+	 * 获取工作表名称
+	 *
+	 * @return 按工作表索引排列
+	 * @throws IOException
+	 */
+	List<String> getSheetNames() throws IOException;
+
+	/**
+	 * 是否支持多个线程同时读取不同的工作表
+	 *
+	 * @return
+	 */
+	default boolean isConcurrent() {
+		return false;
+	}
+}
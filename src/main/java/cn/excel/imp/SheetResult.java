@@ -0,0 +1,98 @@
+package cn.excel.imp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个工作表的导入结果
+ *
+ * @author yutyi
+ */
+public class SheetResult<E> {
+
+	/**
+	 * 工作表索引(0-based)
+	 */
+	private final int sheetIndex;
+
+	/**
+	 * 工作表名称
+	 */
+	private final String sheetName;
+
+	/**
+	 * 实体类型
+	 */
+	private final Class<E> type;
+
+	/**
+	 * 检查通过的实体对象，按行号排列
+	 */
+	private final List<E> entities = new ArrayList<>();
+
+	/**
+	 * 检查错误，按行号排列
+	 */
+	private final List<CellError> errors = new ArrayList<>();
+
+	private int dataNum;
+
+	private int errorNum;
+
+	SheetResult(int sheetIndex, String sheetName, Class<E> type) {
+		this.sheetIndex = sheetIndex;
+		this.sheetName = sheetName;
+		this.type = type;
+	}
+
+	void add(ImportRow<E> row) {
+		dataNum++;
+		if (row.isValid()) {
+			entities.add(row.getEntity());
+		} else {
+			errorNum++;
+			errors.addAll(row.getErrors());
+		}
+	}
+
+	public int getSheetIndex() {
+		return sheetIndex;
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	public Class<E> getType() {
+		return type;
+	}
+
+	public List<E> getEntities() {
+		return entities;
+	}
+
+	public List<CellError> getErrors() {
+		return errors;
+	}
+
+	public int getDataNum() {
+		return dataNum;
+	}
+
+	public int getSuccessNum() {
+		return dataNum - errorNum;
+	}
+
+	public int getErrorNum() {
+		return errorNum;
+	}
+
+	/**
+	 * 是否检查通过
+	 *
+	 * @return
+	 */
+	public boolean isValid() {
+		return errorNum == 0;
+	}
+}
@@ -0,0 +1,93 @@
+package cn.excel.imp;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 派生样式注册表，按(原样式, 填充, 字体颜色)复用样式，样式数量与单元格数量无关
+ *
+ * @author yutyi
+ */
+class StyleRegistry {
+
+	/**
+	 * 不修改填充颜色
+	 */
+	static final short KEEP_COLOR = -1;
+
+	private final Workbook wb;
+
+	/**
+	 * 派生样式，键为原样式下标、填充方式、填充颜色和字体颜色
+	 */
+	private final Map<Long, CellStyle> styles = new HashMap<>();
+
+	/**
+	 * 派生字体，键为原字体下标和颜色
+	 */
+	private final Map<Long, Font> fonts = new HashMap<>();
+
+	/**
+	 * 派生样式下标 -> 原样式下标，再次派生时从原样式派生，避免样式逐级增加
+	 */
+	private final Map<Integer, Integer> origins = new HashMap<>();
+
+	StyleRegistry(Workbook wb) {
+		this.wb = wb;
+	}
+
+	/**
+	 * 获取派生样式，不存在时创建
+	 *
+	 * @param base
+	 *            原样式
+	 * @param fillPattern
+	 *            填充方式
+	 * @param fillColor
+	 *            填充颜色，KEEP_COLOR表示不修改
+	 * @param fontColor
+	 *            字体颜色
+	 * @return
+	 */
+	CellStyle derive(CellStyle base, FillPatternType fillPattern, short fillColor, short fontColor) {
+		int baseIndex = base.getIndex() & 0xFFFF;
+		Integer origin = origins.get(baseIndex);
+		int originIndex = origin == null ? baseIndex : origin;
+		long key = ((long) originIndex << 32) | ((long) fillPattern.getCode() << 24) | ((fillColor & 0xFFFL) << 12) | (fontColor & 0xFFFL);
+		CellStyle style = styles.get(key);
+		if (style == null) {
+			CellStyle originStyle = origin == null ? base : wb.getCellStyleAt(originIndex);
+			style = wb.createCellStyle();
+			style.cloneStyleFrom(originStyle);
+			style.setFillPattern(fillPattern);
+			if (fillColor != KEEP_COLOR) {
+				style.setFillForegroundColor(fillColor);
+			}
+			style.setFont(this.deriveFont(originStyle.getFontIndex(), fontColor));
+			styles.put(key, style);
+			origins.put(style.getIndex() & 0xFFFF, originIndex);
+		}
+		return style;
+	}
+
+	private Font deriveFont(short fontIndex, short color) {
+		long key = ((long) (fontIndex & 0xFFFF) << 16) | (color & 0xFFFFL);
+		Font newFont = fonts.get(key);
+		if (newFont == null) {
+			Font font = wb.getFontAt(fontIndex);
+			newFont = wb.createFont();
+			newFont.setColor(color);
+			newFont.setFontHeightInPoints(font.getFontHeightInPoints());
+			newFont.setFontName(font.getFontName());
+			newFont.setCharSet(font.getCharSet());
+			newFont.setBold(false);
+			fonts.put(key, newFont);
+		}
+		return newFont;
+	}
+}
@@ -0,0 +1,103 @@
+package cn.excel.imp;
+
+import cn.excel.util.Converters;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 行数据的文本视图，读取时值转换为文本(与单元格按文本读取时一致)，写入直接修改原行数据<br/>
+ * 交给未声明{@link cn.excel.HandleField#isTypedValues()}的HandleField，保持行数据中都是String的约定
+ *
+ * @author yutyi
+ */
+final class TextRow extends AbstractMap<String, Object> {
+
+	private final Map<String, Object> row;
+
+	private TextRow(Map<String, Object> row) {
+		this.row = row;
+	}
+
+	/**
+	 * 转换一批行数据
+	 *
+	 * @param rows
+	 * @return
+	 */
+	static List<Map<String, Object>> of(List<Map<String, Object>> rows) {
+		List<Map<String, Object>> views = new ArrayList<>(rows.size());
+		for (Map<String, Object> row : rows) {
+			views.add(new TextRow(row));
+		}
+		return views;
+	}
+
+	private static Object toText(Object value) {
+		return value == null || value instanceof String ? value : Converters.toText(value);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return toText(row.get(key));
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return row.containsKey(key);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return toText(row.put(key, value));
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return toText(row.remove(key));
+	}
+
+	@Override
+	public int size() {
+		return row.size();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<Entry<String, Object>> iterator = row.entrySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						Entry<String, Object> entry = iterator.next();
+						return new SimpleImmutableEntry<>(entry.getKey(), toText(entry.getValue()));
+					}
+
+					@Override
+					public void remove() {
+						iterator.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return row.size();
+			}
+		};
+	}
+}
@@ -0,0 +1,426 @@
+package cn.excel.imp;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 唯一性索引，保存值的64位指纹、值本身和首次出现的行号<br/>
+ * 使用开放寻址哈希表按指纹查找，指纹相同时再比较值，不会把指纹碰撞的不同值判为重复<br/>
+ * 哈希表和值各占一半内存预算，超出后分别转存到临时文件中
+ *
+ * @author yutyi
+ */
+public class UniqueIndex implements Closeable {
+
+	/**
+	 * 每个槽位字节数：指纹8字节 + 值的位置8字节 + 行号4字节
+	 */
+	private static final int SLOT_BYTES = 20;
+
+	/**
+	 * 内存映射单个文件的最大槽位数
+	 */
+	private static final int MAX_CAPACITY = 1 << 26;
+
+	/**
+	 * 内存预算(字节)
+	 */
+	private final long memoryBudget;
+
+	private Table table;
+
+	private final KeyStore keys;
+
+	private int size;
+
+	/**
+	 *
+	 * @param memoryBudget
+	 *            内存预算(字节)，超出后使用临时文件
+	 */
+	public UniqueIndex(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+		this.table = new HeapTable(1024);
+		this.keys = new KeyStore(memoryBudget / 2);
+	}
+
+	/**
+	 * 值不存在时加入索引
+	 *
+	 * @param values
+	 *            唯一约束各列的值
+	 * @param rowIndex
+	 *            行号
+	 * @return 值已存在时返回首次出现的行号，否则返回-1
+	 */
+	public int putIfAbsent(String[] values, int rowIndex) {
+		long fingerprint = fingerprint(values);
+		byte[] bytes = encode(values);
+		// 0表示空槽位
+		long key = fingerprint == 0 ? 1 : fingerprint;
+		int mask = table.capacity() - 1;
+		int slot = (int) (key ^ (key >>> 32)) & mask;
+		while (true) {
+			long current = table.key(slot);
+			if (current == 0) {
+				break;
+			} else if (current == key && keys.matches(table.offset(slot), bytes)) {
+				return table.row(slot);
+			}
+			// 指纹碰撞的不同值继续向后查找
+			slot = (slot + 1) & mask;
+		}
+		table.put(slot, key, keys.append(bytes), rowIndex);
+		if (++size > table.capacity() / 2) {
+			this.resize();
+		}
+		return -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private void resize() {
+		int capacity = table.capacity() * 2;
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalStateException("唯一性检查的数据量超出上限");
+		}
+		Table newTable = (long) capacity * SLOT_BYTES > memoryBudget / 2 ? new MappedTable(capacity) : new HeapTable(capacity);
+		int mask = capacity - 1;
+		for (int i = 0; i < table.capacity(); i++) {
+			long key = table.key(i);
+			if (key != 0) {
+				int slot = (int) (key ^ (key >>> 32)) & mask;
+				while (newTable.key(slot) != 0) {
+					slot = (slot + 1) & mask;
+				}
+				newTable.put(slot, key, table.offset(i), table.row(i));
+			}
+		}
+		table.close();
+		table = newTable;
+	}
+
+	@Override
+	public void close() {
+		table.close();
+		keys.close();
+	}
+
+	/**
+	 * 计算字符串组合的64位指纹(FNV-1a，末尾做一次混淆)，每个值前加入长度避免拼接歧义
+	 *
+	 * @param values
+	 * @return
+	 */
+	public static long fingerprint(String... values) {
+		long hash = 0xcbf29ce484222325L;
+		for (String value : values) {
+			int length = value == null ? -1 : value.length();
+			hash = (hash ^ length) * 0x100000001b3L;
+			for (int i = 0; i < length; i++) {
+				hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+			}
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * 值编码为字节：每个值为4字节长度(null为-1) + UTF-8字节
+	 *
+	 * @param values
+	 * @return
+	 */
+	private static byte[] encode(String[] values) {
+		byte[][] parts = new byte[values.length][];
+		int length = 0;
+		for (int i = 0; i < values.length; i++) {
+			parts[i] = values[i] == null ? null : values[i].getBytes(StandardCharsets.UTF_8);
+			length += 4 + (parts[i] == null ? 0 : parts[i].length);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		for (byte[] part : parts) {
+			if (part == null) {
+				buffer.putInt(-1);
+			} else {
+				buffer.putInt(part.length);
+				buffer.put(part);
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * 哈希表存储
+	 */
+	private interface Table {
+
+		int capacity();
+
+		long key(int slot);
+
+		/**
+		 * 值在KeyStore中的位置
+		 */
+		long offset(int slot);
+
+		int row(int slot);
+
+		void put(int slot, long key, long offset, int row);
+
+		void close();
+	}
+
+	private static class HeapTable implements Table {
+
+		private final long[] keys;
+
+		private final long[] offsets;
+
+		private final int[] rows;
+
+		HeapTable(int capacity) {
+			this.keys = new long[capacity];
+			this.offsets = new long[capacity];
+			this.rows = new int[capacity];
+		}
+
+		@Override
+		public int capacity() {
+			return keys.length;
+		}
+
+		@Override
+		public long key(int slot) {
+			return keys[slot];
+		}
+
+		@Override
+		public long offset(int slot) {
+			return offsets[slot];
+		}
+
+		@Override
+		public int row(int slot) {
+			return rows[slot];
+		}
+
+		@Override
+		public void put(int slot, long key, long offset, int row) {
+			keys[slot] = key;
+			offsets[slot] = offset;
+			rows[slot] = row;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * 临时文件存储，通过内存映射读写，由操作系统决定驻留内存的页
+	 */
+	private static class MappedTable implements Table {
+
+		private final int capacity;
+
+		private final File file;
+
+		private ByteBuffer buffer;
+
+		MappedTable(int capacity) {
+			this.capacity = capacity;
+			try {
+				this.file = File.createTempFile("excel-unique", ".idx");
+				this.file.deleteOnExit();
+				try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+					// 新映射的文件内容全部为0，即空槽位
+					MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_BYTES);
+					this.buffer = mapped;
+				}
+			} catch (IOException ex) {
+				throw new IllegalStateException("创建唯一性检查临时文件失败", ex);
+			}
+		}
+
+		@Override
+		public int capacity() {
+			return capacity;
+		}
+
+		@Override
+		public long key(int slot) {
+			return buffer.getLong(slot * SLOT_BYTES);
+		}
+
+		@Override
+		public long offset(int slot) {
+			return buffer.getLong(slot * SLOT_BYTES + 8);
+		}
+
+		@Override
+		public int row(int slot) {
+			return buffer.getInt(slot * SLOT_BYTES + 16);
+		}
+
+		@Override
+		public void put(int slot, long key, long offset, int row) {
+			buffer.putLong(slot * SLOT_BYTES, key);
+			buffer.putLong(slot * SLOT_BYTES + 8, offset);
+			buffer.putInt(slot * SLOT_BYTES + 16, row);
+		}
+
+		/**
+		 * 先释放对映射的引用再删除文件；映射在缓冲区被回收后才解除，<br/>
+		 * Windows上映射未解除的文件不能删除，此时删除推迟到虚拟机退出(deleteOnExit)
+		 */
+		@Override
+		public void close() {
+			buffer = null;
+			file.delete();
+		}
+	}
+
+	/**
+	 * 值的存储，只追加；超出内存预算后转存到临时文件，比较时按位置读取
+	 */
+	private static class KeyStore {
+
+		private final long memoryBudget;
+
+		private byte[] bytes = new byte[4096];
+
+		/**
+		 * 已写入的字节数
+		 */
+		private long length;
+
+		private File file;
+
+		private RandomAccessFile raf;
+
+		private FileChannel channel;
+
+		KeyStore(long memoryBudget) {
+			this.memoryBudget = Math.min(memoryBudget, Integer.MAX_VALUE - 8);
+		}
+
+		/**
+		 * 追加一个值
+		 *
+		 * @param key
+		 * @return 值的位置
+		 */
+		long append(byte[] key) {
+			long offset = length;
+			ByteBuffer buffer = ByteBuffer.allocate(4 + key.length);
+			buffer.putInt(key.length).put(key);
+			if (channel == null && length + buffer.capacity() > memoryBudget) {
+				this.spill();
+			}
+			if (channel == null) {
+				if (length + buffer.capacity() > bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min(memoryBudget, Math.max(bytes.length * 2L, length + buffer.capacity())));
+				}
+				System.arraycopy(buffer.array(), 0, bytes, (int) length, buffer.capacity());
+			} else {
+				buffer.flip();
+				this.write(buffer, length);
+			}
+			length += buffer.capacity();
+			return offset;
+		}
+
+		/**
+		 * 位置上的值是否与key相同
+		 *
+		 * @param offset
+		 * @param key
+		 * @return
+		 */
+		boolean matches(long offset, byte[] key) {
+			ByteBuffer buffer = ByteBuffer.allocate(4 + key.length);
+			if (channel == null) {
+				buffer.put(bytes, (int) offset, (int) Math.min(buffer.capacity(), length - offset));
+			} else {
+				this.read(buffer, offset);
+			}
+			buffer.flip();
+			if (buffer.remaining() < 4 || buffer.getInt() != key.length || buffer.remaining() != key.length) {
+				return false;
+			}
+			return buffer.equals(ByteBuffer.wrap(key));
+		}
+
+		/**
+		 * 已有的值写入临时文件
+		 */
+		private void spill() {
+			try {
+				file = File.createTempFile("excel-unique", ".key");
+				file.deleteOnExit();
+				raf = new RandomAccessFile(file, "rw");
+				channel = raf.getChannel();
+				this.write(ByteBuffer.wrap(bytes, 0, (int) length), 0);
+				bytes = null;
+			} catch (IOException ex) {
+				this.close();
+				throw new IllegalStateException("创建唯一性检查临时文件失败", ex);
+			}
+		}
+
+		private void write(ByteBuffer buffer, long position) {
+			try {
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+			} catch (IOException ex) {
+				throw new IllegalStateException("写入唯一性检查临时文件失败", ex);
+			}
+		}
+
+		private void read(ByteBuffer buffer, long position) {
+			try {
+				while (buffer.hasRemaining()) {
+					int n = channel.read(buffer, position);
+					if (n < 0) {
+						break;
+					}
+					position += n;
+				}
+			} catch (IOException ex) {
+				throw new IllegalStateException("读取唯一性检查临时文件失败", ex);
+			}
+		}
+
+		void close() {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException ex) {
+					// ignore
+				}
+				raf = null;
+				channel = null;
+			}
+			if (file != null) {
+				file.delete();
+				file = null;
+			}
+			bytes = null;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package cn.excel.imp;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * xls流式读取器，基于HSSF事件模型(HSSFEventFactory + HSSFListener)逐条处理BIFF8记录<br/>
+ * 所有工作表在同一个记录流中，每次读取都要顺序处理整个文档，不支持并行读取
+ *
+ * @author yutyi
+ */
+public class XlsStreamReader implements SheetReader {
+
+	/**
+	 * FormulaRecord.getCachedResultType()的取值，与CellType的code一致(POI 3.17中CellType.getCode()、forInt()已过时)
+	 */
+	private static final int RESULT_NUMERIC = 0;
+
+	private static final int RESULT_STRING = 1;
+
+	private static final int RESULT_BOOLEAN = 4;
+
+	private NPOIFSFileSystem fs;
+
+	public XlsStreamReader(File file) throws IOException {
+		this.fs = new NPOIFSFileSystem(file, true);
+	}
+
+	/**
+	 * 从流中读取，文档全部读入内存，本地文件应使用{@link #XlsStreamReader(File)}
+	 *
+	 * @param is
+	 *            由调用方关闭
+	 * @throws IOException
+	 */
+	public XlsStreamReader(InputStream is) throws IOException {
+		this.fs = new NPOIFSFileSystem(is);
+	}
+
+	@Override
+	public void read(int sheetIndex, ColumnMap columns, RowHandler handler) throws IOException {
+		SheetListener listener = new SheetListener(sheetIndex, columns, handler);
+		HSSFRequest request = new HSSFRequest();
+		request.addListenerForAllRecords(listener.formatListener);
+		new HSSFEventFactory().processWorkbookEvents(request, fs.getRoot());
+		if (listener.sheetCount <= sheetIndex) {
+			throw new IOException("工作表不存在：" + sheetIndex);
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames() throws IOException {
+		List<String> names = new ArrayList<>();
+		HSSFRequest request = new HSSFRequest();
+		request.addListener(record -> names.add(((BoundSheetRecord) record).getSheetname()), BoundSheetRecord.sid);
+		new HSSFEventFactory().processWorkbookEvents(request, fs.getRoot());
+		return names;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (fs != null) {
+			fs.close();
+			fs = null;
+		}
+	}
+
+	/**
+	 * 记录监听器，只处理指定工作表的单元格记录
+	 */
+	private static class SheetListener implements HSSFListener {
+
+		private final int sheetIndex;
+
+		private final ColumnMap columns;
+
+		private final RowHandler handler;
+
+		/**
+		 * 记录单元格格式，用于判断日期
+		 */
+		private final FormatTrackingHSSFListener formatListener;
+
+		/**
+		 * 共享字符串表
+		 */
+		private SSTRecord sstRecord;
+
+		/**
+		 * 已读取的工作表数
+		 */
+		private int sheetCount;
+
+		private boolean isActive;
+
+		private Object[] values;
+
+		/**
+		 * 字符串公式的结果在后续的StringRecord中
+		 */
+		private int stringColumn = -1;
+
+		SheetListener(int sheetIndex, ColumnMap columns, RowHandler handler) {
+			this.sheetIndex = sheetIndex;
+			this.columns = columns;
+			this.handler = handler;
+			this.formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(this));
+		}
+
+		@Override
+		public void processRecord(Record record) {
+			switch (record.getSid()) {
+			case BOFRecord.sid:
+				BOFRecord bof = (BOFRecord) record;
+				if (bof.getType() == BOFRecord.TYPE_WORKSHEET) {
+					isActive = (sheetCount++ == sheetIndex);
+				}
+				break;
+			case SSTRecord.sid:
+				sstRecord = (SSTRecord) record;
+				break;
+			case LabelSSTRecord.sid:
+				LabelSSTRecord labelSST = (LabelSSTRecord) record;
+				if (isActive && columns.slot(labelSST.getColumn()) >= 0) {
+					this.setValue(labelSST, sstRecord.getString(labelSST.getSSTIndex()).getString());
+				}
+				break;
+			case LabelRecord.sid:
+				LabelRecord label = (LabelRecord) record;
+				this.setValue(label, label.getValue());
+				break;
+			case NumberRecord.sid:
+				NumberRecord number = (NumberRecord) record;
+				this.setValue(number, this.getNumberValue(number, number.getValue()));
+				break;
+			case BoolErrRecord.sid:
+				BoolErrRecord boolErr = (BoolErrRecord) record;
+				if (boolErr.isBoolean()) {
+					this.setValue(boolErr, boolErr.getBooleanValue());
+				}
+				break;
+			case FormulaRecord.sid:
+				// 使用Excel保存的公式结果
+				FormulaRecord formula = (FormulaRecord) record;
+				switch (formula.getCachedResultType()) {
+				case RESULT_STRING:
+					stringColumn = formula.getColumn();
+					break;
+				case RESULT_NUMERIC:
+					this.setValue(formula, this.getNumberValue(formula, formula.getValue()));
+					break;
+				case RESULT_BOOLEAN:
+					this.setValue(formula, formula.getCachedBooleanValue());
+					break;
+				default:
+					// 错误值按空值处理
+					break;
+				}
+				break;
+			case StringRecord.sid:
+				if (isActive && stringColumn >= 0 && columns.slot(stringColumn) >= 0) {
+					this.setValue(columns.slot(stringColumn), ((StringRecord) record).getString());
+				}
+				stringColumn = -1;
+				break;
+			default:
+				if (record instanceof LastCellOfRowDummyRecord && isActive) {
+					handler.handle(((LastCellOfRowDummyRecord) record).getRow(), columns.values(values, 0));
+					values = null;
+				}
+				break;
+			}
+		}
+
+		private void setValue(int slot, Object value) {
+			values = columns.values(values, slot);
+			values[slot] = value;
+		}
+
+		private void setValue(CellValueRecordInterface record, Object value) {
+			int slot = columns.slot(record.getColumn());
+			if (isActive && slot >= 0) {
+				this.setValue(slot, value);
+			}
+		}
+
+		/**
+		 * 获取数值，日期格式的单元格返回日期
+		 *
+		 * @param record
+		 * @param value
+		 * @return
+		 */
+		private Object getNumberValue(CellValueRecordInterface record, double value) {
+			if (!isActive || columns.slot(record.getColumn()) < 0) {
+				return null;
+			}
+			int dataFormat = formatListener.getFormatIndex(record);
+			String formatString = formatListener.getFormatString(record);
+			if (DateUtil.isValidExcelDate(value) && DateUtil.isADateFormat(dataFormat, formatString)) {
+				return DateUtil.getJavaDate(value, false);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package cn.excel.imp;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * xlsx流式读取器，基于XSSF事件模型(XSSFReader + SAX)逐行解析工作表<br/>
+ * 共享字符串表和样式表只读取一次，不同工作表可以在多个线程中同时读取
+ *
+ * @author yutyi
+ */
+public class XlsxStreamReader implements SheetReader {
+
+	/**
+	 * 共享字符串表在堆内存中保存的最大字节数，超出后转存到临时文件
+	 */
+	private static final long STRINGS_MEMORY_BUDGET = 8L << 20;
+
+	private OPCPackage pkg;
+
+	private XSSFReader reader;
+
+	/**
+	 * 共享字符串表
+	 */
+	private SharedStrings strings;
+
+	/**
+	 * 样式表，用于判断日期格式
+	 */
+	private StylesTable styles;
+
+	public XlsxStreamReader(File file) throws IOException {
+		try {
+			this.pkg = OPCPackage.open(file, PackageAccess.READ);
+			this.init();
+		} catch (OpenXML4JException | SAXException ex) {
+			this.close();
+			throw new IOException("xlsx文档解析失败", ex);
+		}
+	}
+
+	/**
+	 * 从流中读取，zip条目全部读入内存，本地文件应使用{@link #XlsxStreamReader(File)}
+	 *
+	 * @param is
+	 *            由调用方关闭
+	 * @throws IOException
+	 */
+	public XlsxStreamReader(InputStream is) throws IOException {
+		try {
+			this.pkg = OPCPackage.open(is);
+			this.init();
+		} catch (OpenXML4JException | SAXException ex) {
+			this.close();
+			throw new IOException("xlsx文档解析失败", ex);
+		}
+	}
+
+	private void init() throws IOException, OpenXML4JException, SAXException {
+		this.reader = new XSSFReader(pkg);
+		this.strings = new SharedStrings(STRINGS_MEMORY_BUDGET);
+		List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+		if (!parts.isEmpty()) {
+			try (InputStream is = parts.get(0).getInputStream()) {
+				this.strings.load(is);
+			}
+		}
+		this.styles = reader.getStylesTable();
+	}
+
+	@Override
+	public void read(int sheetIndex, ColumnMap columns, RowHandler handler) throws IOException {
+		try {
+			Iterator<InputStream> sheets = reader.getSheetsData();
+			for (int index = 0; sheets.hasNext(); index++) {
+				try (InputStream is = sheets.next()) {
+					if (index == sheetIndex) {
+						XMLReader parser = SAXHelper.newXMLReader();
+						parser.setContentHandler(new SheetHandler(columns, handler));
+						parser.parse(new InputSource(is));
+						return;
+					}
+				}
+			}
+		} catch (OpenXML4JException | SAXException | ParserConfigurationException ex) {
+			throw new IOException("xlsx工作表解析失败", ex);
+		}
+		throw new IOException("工作表不存在：" + sheetIndex);
+	}
+
+	@Override
+	public List<String> getSheetNames() throws IOException {
+		List<String> names = new ArrayList<>();
+		try {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				sheets.next().close();
+				names.add(sheets.getSheetName());
+			}
+		} catch (OpenXML4JException ex) {
+			throw new IOException("xlsx工作表解析失败", ex);
+		}
+		return names;
+	}
+
+	@Override
+	public boolean isConcurrent() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+		if (strings != null) {
+			strings.close();
+			strings = null;
+		}
+		if (pkg != null) {
+			// 只读打开的文档不能保存，直接丢弃
+			pkg.revert();
+			pkg = null;
+		}
+	}
+
+	/**
+	 * 单元格引用(如AB12)转换为列号(0-based)
+	 *
+	 * @param ref
+	 * @return
+	 */
+	static int toColumnIndex(String ref) {
+		int column = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char ch = ref.charAt(i);
+			if (ch < 'A' || ch > 'Z') {
+				break;
+			}
+			column = column * 26 + (ch - 'A' + 1);
+		}
+		return column - 1;
+	}
+
+	/**
+	 * 工作表SAX处理器，只保留当前行的数据
+	 */
+	private class SheetHandler extends DefaultHandler {
+
+		private final ColumnMap columns;
+
+		private final RowHandler handler;
+
+		private final StringBuilder text = new StringBuilder();
+
+		private Object[] values;
+
+		private int rowIndex = -1;
+
+		private int columnIndex;
+
+		/**
+		 * 当前单元格的列定义下标，-1表示不需要读取
+		 */
+		private int slot;
+
+		private String cellType;
+
+		private int styleIndex;
+
+		/**
+		 * 是否在读取单元格值(v或内联字符串t)
+		 */
+		private boolean isValue;
+
+		SheetHandler(ColumnMap columns, RowHandler handler) {
+			this.columns = columns;
+			this.handler = handler;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			if ("row".equals(localName)) {
+				String r = attributes.getValue("r");
+				rowIndex = r == null ? rowIndex + 1 : Integer.parseInt(r) - 1;
+				columnIndex = -1;
+				values = columns.values(null, 0);
+			} else if ("c".equals(localName)) {
+				String r = attributes.getValue("r");
+				columnIndex = r == null ? columnIndex + 1 : toColumnIndex(r);
+				slot = columns.slot(columnIndex);
+				if (slot < 0) {
+					return;
+				}
+				cellType = attributes.getValue("t");
+				String s = attributes.getValue("s");
+				styleIndex = s == null ? 0 : Integer.parseInt(s);
+				text.setLength(0);
+			} else if (slot >= 0 && ("v".equals(localName) || ("t".equals(localName) && "inlineStr".equals(cellType)))) {
+				isValue = true;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (isValue) {
+				text.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			if ("v".equals(localName) || "t".equals(localName)) {
+				isValue = false;
+			} else if ("c".equals(localName)) {
+				if (slot >= 0) {
+					values = columns.values(values, slot);
+					values[slot] = this.getCellValue();
+				}
+			} else if ("row".equals(localName)) {
+				handler.handle(rowIndex, values);
+			}
+		}
+
+		/**
+		 * 获取单元格的值，与对象模型读取时类型一致
+		 *
+		 * @return
+		 */
+		private Object getCellValue() {
+			String value = text.toString();
+			if ("s".equals(cellType)) {
+				// 共享字符串索引为空(<v/>)时按空单元格处理
+				return value.isEmpty() ? null : strings.get(Integer.parseInt(value));
+			} else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+				return value;
+			} else if ("b".equals(cellType)) {
+				return "1".equals(value);
+			} else if ("e".equals(cellType) || value.isEmpty()) {
+				return null;
+			}
+			double doubleValue = Double.parseDouble(value);
+			XSSFCellStyle style = styles != null && styles.getNumCellStyles() > styleIndex ? styles.getStyleAt(styleIndex) : null;
+			if (style != null && DateUtil.isValidExcelDate(doubleValue) && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())) {
+				return DateUtil.getJavaDate(doubleValue, false);
+			}
+			return doubleValue;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package cn.excel.util;
+
+/**
+ * 类型转换器，按目标类型预先选定，导入时每个单元格只调用一次
+ *
+ * @author yutyi
+ */
+public interface Converter {
+
+	/**
+	 * 转换为目标类型
+	 *
+	 * @param value
+	 *            单元格值或HandleField转换后的值
+	 * @return 目标类型的值，无法得到有效值时返回null
+	 * @throws IllegalArgumentException
+	 *             数值格式错误时
+	 */
+	Object convert(Object value);
+}
@@ -0,0 +1,268 @@
+package cn.excel.util;
+
+import org.apache.commons.beanutils.ConvertUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按目标类型选择转换器
+ *
+ * @author yutyi
+ */
+public class Converters {
+
+	/**
+	 * Excel只有时间的单元格对应的日期
+	 */
+	private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 31);
+
+	/**
+	 * Excel数值的有效位数，超出部分为浮点运算误差(如公式0.1+0.2得到0.30000000000000004)
+	 */
+	private static final MathContext EXCEL_PRECISION = new MathContext(15);
+
+	/**
+	 * double能精确表示所有整数的上限(2^53)
+	 */
+	private static final double MAX_EXACT_INTEGER = 9007199254740992D;
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+	private static final Map<Class<?>, Converter> CONVERTERS = new HashMap<>();
+
+	/**
+	 * 日期类型及由Timestamp转换的方法，日期转换器带有解析器状态，按列创建
+	 */
+	private static final Map<Class<?>, Function<Timestamp, ?>> DATE_TYPES = new HashMap<>();
+
+	static {
+		Converter stringConverter = value -> value instanceof String ? value : toText(value);
+		Converter integerConverter = integer(Integer.class, BigDecimal::intValueExact, Integer::valueOf);
+		Converter longConverter = integer(Long.class, BigDecimal::longValueExact, Long::valueOf);
+		Converter shortConverter = integer(Short.class, BigDecimal::shortValueExact, Short::valueOf);
+		Converter byteConverter = integer(Byte.class, BigDecimal::byteValueExact, Byte::valueOf);
+		Converter doubleConverter = number(Double.class, Number::doubleValue, Double::valueOf);
+		Converter floatConverter = number(Float.class, Number::floatValue, Float::valueOf);
+		Converter booleanConverter = value -> value instanceof Boolean ? value : Boolean.valueOf(text(value));
+
+		CONVERTERS.put(String.class, stringConverter);
+		CONVERTERS.put(Object.class, value -> value);
+		CONVERTERS.put(Integer.class, integerConverter);
+		CONVERTERS.put(int.class, integerConverter);
+		CONVERTERS.put(Long.class, longConverter);
+		CONVERTERS.put(long.class, longConverter);
+		CONVERTERS.put(Short.class, shortConverter);
+		CONVERTERS.put(short.class, shortConverter);
+		CONVERTERS.put(Byte.class, byteConverter);
+		CONVERTERS.put(byte.class, byteConverter);
+		CONVERTERS.put(Double.class, doubleConverter);
+		CONVERTERS.put(double.class, doubleConverter);
+		CONVERTERS.put(Float.class, floatConverter);
+		CONVERTERS.put(float.class, floatConverter);
+		CONVERTERS.put(Boolean.class, booleanConverter);
+		CONVERTERS.put(boolean.class, booleanConverter);
+		CONVERTERS.put(BigDecimal.class, number(BigDecimal.class, number -> new BigDecimal(toText(number)), BigDecimal::new));
+		CONVERTERS.put(BigInteger.class, integer(BigInteger.class, BigDecimal::toBigIntegerExact, BigInteger::new));
+
+		DATE_TYPES.put(Date.class, timestamp -> timestamp);
+		DATE_TYPES.put(Timestamp.class, timestamp -> timestamp);
+		DATE_TYPES.put(java.sql.Date.class, timestamp -> new java.sql.Date(timestamp.getTime()));
+		DATE_TYPES.put(java.sql.Time.class, timestamp -> new java.sql.Time(timestamp.getTime()));
+		DATE_TYPES.put(LocalDateTime.class, Timestamp::toLocalDateTime);
+		DATE_TYPES.put(LocalDate.class, timestamp -> timestamp.toLocalDateTime().toLocalDate());
+		DATE_TYPES.put(LocalTime.class, timestamp -> timestamp.toLocalDateTime().toLocalTime());
+	}
+
+	/**
+	 * 获取目标类型的转换器
+	 *
+	 * @param type
+	 *            目标类型
+	 * @return
+	 */
+	public static Converter forType(Class<?> type) {
+		return forType(type, new DateParser());
+	}
+
+	/**
+	 * 获取目标类型的转换器
+	 *
+	 * @param type
+	 *            目标类型
+	 * @param dateParser
+	 *            日期解析器，目标类型为日期时使用
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Converter forType(Class<?> type, DateParser dateParser) {
+		Converter converter = CONVERTERS.get(type);
+		if (converter != null) {
+			return converter;
+		}
+		Function<Timestamp, ?> fromTimestamp = DATE_TYPES.get(type);
+		if (fromTimestamp != null) {
+			return date(type, fromTimestamp, dateParser);
+		}
+		if (type.isEnum()) {
+			Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+			return value -> type.isInstance(value) ? value : Enum.valueOf(enumType, text(value));
+		}
+		// 其他类型交给commons-beanutils处理
+		return value -> type.isInstance(value) ? value : ConvertUtils.convert(text(value), type);
+	}
+
+	/**
+	 * 单元格值转换为文本：数值不带多余的0且不丢失精度，布尔值为True/False，<br/>
+	 * 日期按是否有日期、时间部分输出为yyyy-MM-dd HH:mm:ss、yyyy-MM-dd或HH:mm:ss
+	 *
+	 * @param value
+	 *            String、Double、Boolean或Date
+	 * @return 值为null时返回空字符串
+	 */
+	public static String toText(Object value) {
+		if (value == null) {
+			return "";
+		} else if (value instanceof String) {
+			return (String) value;
+		} else if (value instanceof Double || value instanceof Float) {
+			double d = ((Number) value).doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				return String.valueOf(d);
+			} else if (d != Math.rint(d)) {
+				// 只有带小数的值需要去掉浮点运算误差，整数(如长编号)按原值输出
+				return toDecimal(d).toPlainString();
+			} else if (Math.abs(d) <= MAX_EXACT_INTEGER) {
+				return Long.toString((long) d);
+			}
+			return BigDecimal.valueOf(d).toBigInteger().toString();
+		} else if (value instanceof Boolean) {
+			return (Boolean) value ? "True" : "False";
+		} else if (value instanceof Date) {
+			LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault());
+			if (dateTime.toLocalDate().equals(EXCEL_EPOCH)) {
+				return dateTime.toLocalTime().format(TIME_FORMATTER);
+			}
+			return dateTime.format(dateTime.toLocalTime().equals(LocalTime.MIDNIGHT) ? DATE_FORMATTER : DATE_TIME_FORMATTER);
+		}
+		return value.toString();
+	}
+
+	/**
+	 * 数值按Excel的15位有效数字转换为BigDecimal，去掉多余的0
+	 *
+	 * @param d
+	 *            有限的数值
+	 * @return
+	 */
+	public static BigDecimal toDecimal(double d) {
+		return BigDecimal.valueOf(d).round(EXCEL_PRECISION).stripTrailingZeros();
+	}
+
+	private static String text(Object value) {
+		return toText(value).trim();
+	}
+
+	/**
+	 * 数值转换器
+	 */
+	private static <T> Converter number(Class<T> type, Function<Number, T> fromNumber, Function<String, T> parser) {
+		return value -> {
+			if (type.isInstance(value)) {
+				return value;
+			} else if (value instanceof Number) {
+				return fromNumber.apply((Number) value);
+			}
+			String str = text(value);
+			if (str.isEmpty()) {
+				return null;
+			}
+			try {
+				return parser.apply(str);
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("[" + str + "]不能转换为" + type.getSimpleName(), ex);
+			}
+		};
+	}
+
+	/**
+	 * 整数转换器，带小数位的整数（如12.0）按精确值转换，有小数或超出类型范围时抛出异常
+	 *
+	 * @param fromDecimal
+	 *            精确转换，不能精确转换时抛出ArithmeticException
+	 */
+	private static <T> Converter integer(Class<T> type, Function<BigDecimal, T> fromDecimal, Function<String, T> parser) {
+		return value -> {
+			if (type.isInstance(value)) {
+				return value;
+			}
+			String str = value instanceof Number ? toText(value) : text(value);
+			if (str.isEmpty()) {
+				return null;
+			}
+			try {
+				if (value instanceof Number) {
+					return fromDecimal.apply(exact((Number) value));
+				}
+				try {
+					return parser.apply(str);
+				} catch (NumberFormatException ex) {
+					// 如"12.0"、"1e3"
+					return fromDecimal.apply(new BigDecimal(str));
+				}
+			} catch (ArithmeticException | NumberFormatException ex) {
+				throw new IllegalArgumentException("[" + str + "]不能转换为" + type.getSimpleName(), ex);
+			}
+		};
+	}
+
+	/**
+	 * 数值按精确值转换为BigDecimal
+	 */
+	private static BigDecimal exact(Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		} else if (number instanceof BigInteger) {
+			return new BigDecimal((BigInteger) number);
+		} else if (number instanceof Double || number instanceof Float) {
+			// NaN和无穷大抛出NumberFormatException
+			return BigDecimal.valueOf(number.doubleValue());
+		}
+		return BigDecimal.valueOf(number.longValue());
+	}
+
+	/**
+	 * 日期转换器，无法识别的日期返回null
+	 */
+	private static Converter date(Class<?> type, Function<Timestamp, ?> fromTimestamp, DateParser dateParser) {
+		return value -> {
+			if (type.isInstance(value)) {
+				return value;
+			}
+			Timestamp timestamp;
+			if (value instanceof Date) {
+				timestamp = new Timestamp(((Date) value).getTime());
+			} else {
+				String str = text(value);
+				timestamp = str.isEmpty() ? null : DateUtils.toTimestamp(str, dateParser);
+			}
+			return timestamp == null ? null : fromTimestamp.apply(timestamp);
+		};
+	}
+}
@@ -0,0 +1,104 @@
+package cn.excel.util;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * 日期解析器，格式预先编译，解析失败不抛异常<br/>
+ * 记住上次解析成功的格式并优先尝试，同一列的日期通常格式相同，每列使用一个实例效果最好<br/>
+ * 线程安全
+ *
+ * @author yutyi
+ */
+public class DateParser {
+
+	/**
+	 * 支持的日期格式，数字位数不限（如M可匹配1或01）
+	 */
+	private static final String[] PATTERNS = new String[] { "u-M-d H:m:s", "u-M-d H:m", "u-M-d", "H:m:s", "H:m", "u/M/d H:m:s", "u/M/d H:m", "u/M/d",
+			"u-M-d H:m:s.SSS", "u年M月d日" };
+
+	private static final DateTimeFormatter[] FORMATTERS = new DateTimeFormatter[PATTERNS.length];
+
+	static {
+		for (int i = 0; i < PATTERNS.length; i++) {
+			FORMATTERS[i] = DateTimeFormatter.ofPattern(PATTERNS[i]);
+		}
+	}
+
+	/**
+	 * 上次解析成功的格式下标
+	 */
+	private volatile int lastIndex;
+
+	/**
+	 * 解析日期，只有时间的格式日期为1970-01-01
+	 *
+	 * @param str
+	 * @return 无法识别时返回null
+	 */
+	public LocalDateTime parse(String str) {
+		if (str == null || str.isEmpty()) {
+			return null;
+		}
+		int last = lastIndex;
+		LocalDateTime dateTime = parse(str, FORMATTERS[last]);
+		if (dateTime != null) {
+			return dateTime;
+		}
+		for (int i = 0; i < FORMATTERS.length; i++) {
+			if (i != last && (dateTime = parse(str, FORMATTERS[i])) != null) {
+				lastIndex = i;
+				return dateTime;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 按格式解析，只做词法匹配后手工校验取值范围，避免DateTimeFormatter.parse()的异常开销
+	 *
+	 * @param str
+	 * @param formatter
+	 * @return
+	 */
+	private static LocalDateTime parse(String str, DateTimeFormatter formatter) {
+		ParsePosition position = new ParsePosition(0);
+		TemporalAccessor parsed = formatter.parseUnresolved(str, position);
+		if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != str.length()) {
+			return null;
+		}
+		LocalDate date = LocalDate.of(1970, 1, 1);
+		if (parsed.isSupported(ChronoField.YEAR)) {
+			long year = parsed.getLong(ChronoField.YEAR);
+			long month = parsed.getLong(ChronoField.MONTH_OF_YEAR);
+			long day = parsed.getLong(ChronoField.DAY_OF_MONTH);
+			if (year < 1 || year > 9999 || month < 1 || month > 12 || day < 1 || day > 31) {
+				return null;
+			}
+			int dayCount = java.time.Month.of((int) month).length(Year.isLeap(year));
+			if (day > dayCount) {
+				return null;
+			}
+			date = LocalDate.of((int) year, (int) month, (int) day);
+		}
+		LocalTime time = LocalTime.MIDNIGHT;
+		if (parsed.isSupported(ChronoField.HOUR_OF_DAY)) {
+			long hour = parsed.getLong(ChronoField.HOUR_OF_DAY);
+			long minute = parsed.getLong(ChronoField.MINUTE_OF_HOUR);
+			long second = parsed.isSupported(ChronoField.SECOND_OF_MINUTE) ? parsed.getLong(ChronoField.SECOND_OF_MINUTE) : 0;
+			long nano = parsed.isSupported(ChronoField.NANO_OF_SECOND) ? parsed.getLong(ChronoField.NANO_OF_SECOND) : 0;
+			if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+				return null;
+			}
+			time = LocalTime.of((int) hour, (int) minute, (int) second, (int) nano);
+		}
+		return LocalDateTime.of(date, time);
+	}
+}
@@ -1,7 +1,14 @@
 package cn.excel.util;
 
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author yutyi
@@ -9,6 +16,16 @@ import java.util.Date;
  */
 public class DateUtils extends org.apache.commons.lang.time.DateUtils {
 
+	/**
+	 * 默认解析器，未指定列时共用
+	 */
+	private static final DateParser PARSER = new DateParser();
+
+	/**
+	 * 格式化器缓存，DateTimeFormatter线程安全
+	 */
+	private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
 	/**
 	 * 转换成日期格式
 	 * 
@@ -16,14 +33,19 @@ public class DateUtils extends org.apache.commons.lang.time.DateUtils {
 	 * @return
 	 */
 	public static Date toTimestamp(String str) {
-		String[] patterns = new String[] { "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "HH:mm:ss", "HH:mm", "yyyy/M/d H:m:s", "HH:mm", "yyyy/M/d H:m", "yyyy/M/d",
-				"H:m:s", "H:m", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy年M月d日" };
-		try {
-			Date date = org.apache.commons.lang.time.DateUtils.parseDate(str, patterns);
-			return new java.sql.Timestamp(date.getTime());
-		} catch (Exception ex) {
-			return null;
-		}
+		return toTimestamp(str, PARSER);
+	}
+
+	/**
+	 * 使用指定解析器转换成日期格式，同一列的值应使用同一个解析器
+	 *
+	 * @param str
+	 * @param parser
+	 * @return 无法识别时返回null
+	 */
+	public static Timestamp toTimestamp(String str, DateParser parser) {
+		LocalDateTime dateTime = str == null ? null : parser.parse(str.trim());
+		return dateTime == null ? null : Timestamp.valueOf(dateTime);
 	}
 
     /**
@@ -55,4 +77,16 @@ public class DateUtils extends org.apache.commons.lang.time.DateUtils {
     public String format(Date date, String pattern) {
         return new SimpleDateFormat(pattern).format(date);
     }
+
+    /**
+     * 日期格式化成指定字符串格式，格式化器按格式缓存，适合大量日期的格式化
+     * @param date
+     * @param pattern
+     *            java.time格式，如yyyy-MM-dd HH:mm:ss，与SimpleDateFormat的区别见DateTimeFormatter
+     * @return
+     */
+    public static String formatDate(Date date, String pattern) {
+        DateTimeFormatter formatter = FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+        return formatter.format(Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()));
+    }
 }
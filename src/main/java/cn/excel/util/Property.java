@@ -0,0 +1,217 @@
+package cn.excel.util;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 实体属性，setter/getter在解析时通过LambdaMetafactory编译为接口调用，不再逐次反射
+ *
+ * @author yutyi
+ */
+public class Property {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/**
+	 * 属性名
+	 */
+	private final String name;
+
+	/**
+	 * 属性类型(setter参数类型)
+	 */
+	private final Class<?> type;
+
+	private final BiConsumer<Object, Object> setter;
+
+	private Property(String name, Class<?> type, BiConsumer<Object, Object> setter) {
+		this.name = name;
+		this.type = type;
+		this.setter = setter;
+	}
+
+	/**
+	 * 解析实体属性，优先使用public的setter，没有setter时直接设置字段
+	 *
+	 * @param beanClass
+	 *            实体类型
+	 * @param name
+	 *            属性名
+	 * @return 属性不存在或不可写时返回null
+	 */
+	public static Property of(Class<?> beanClass, String name) {
+		Field field = findField(beanClass, name);
+		Method method = findSetter(beanClass, name, field == null ? null : field.getType());
+		try {
+			if (method != null) {
+				return new Property(name, method.getParameterTypes()[0], compileSetter(method));
+			} else if (field != null && !Modifier.isFinal(field.getModifiers()) && !Modifier.isStatic(field.getModifiers())) {
+				field.setAccessible(true);
+				return new Property(name, field.getType(), toSetter(LOOKUP.unreflectSetter(field)));
+			}
+		} catch (IllegalAccessException | RuntimeException ex) {
+			throw new IllegalStateException("无法访问属性：" + beanClass.getName() + "." + name, ex);
+		}
+		return null;
+	}
+
+	/**
+	 * 编译属性的读取方法，优先使用public的getter(boolean属性可以是isXxx)，没有getter时直接读取字段
+	 *
+	 * @param beanClass
+	 *            实体类型
+	 * @param name
+	 *            属性名
+	 * @return 属性不存在时返回null
+	 */
+	public static Function<Object, Object> getter(Class<?> beanClass, String name) {
+		Field field = findField(beanClass, name);
+		Method method = findGetter(beanClass, name);
+		try {
+			if (method != null) {
+				return compileGetter(method);
+			} else if (field != null && !Modifier.isStatic(field.getModifiers())) {
+				field.setAccessible(true);
+				return toGetter(LOOKUP.unreflectGetter(field));
+			}
+		} catch (IllegalAccessException | RuntimeException ex) {
+			throw new IllegalStateException("无法访问属性：" + beanClass.getName() + "." + name, ex);
+		}
+		return null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * 设置属性值
+	 *
+	 * @param bean
+	 * @param value
+	 *            已转换为属性类型的值
+	 */
+	public void set(Object bean, Object value) {
+		setter.accept(bean, value);
+	}
+
+	private static Field findField(Class<?> beanClass, String name) {
+		for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			try {
+				return clazz.getDeclaredField(name);
+			} catch (NoSuchFieldException ex) {
+				// 查找父类
+			}
+		}
+		return null;
+	}
+
+	private static Method findSetter(Class<?> beanClass, String name, Class<?> fieldType) {
+		String methodName = "set" + StringUtils.capitalize(name);
+		Method setter = null;
+		for (Method method : beanClass.getMethods()) {
+			if (method.getName().equals(methodName) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+				if (fieldType == null || method.getParameterTypes()[0] == fieldType) {
+					return method;
+				}
+				setter = method;
+			}
+		}
+		return setter;
+	}
+
+	private static Method findGetter(Class<?> beanClass, String name) {
+		String capitalized = StringUtils.capitalize(name);
+		for (Method method : beanClass.getMethods()) {
+			if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class
+					&& (method.getName().equals("get" + capitalized)
+							|| method.getReturnType() == boolean.class && method.getName().equals("is" + capitalized))) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 将getter编译为Function，基本类型返回值装箱，编译失败时退回MethodHandle调用
+	 *
+	 * @param method
+	 * @return
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> compileGetter(Method method) throws IllegalAccessException {
+		method.setAccessible(true);
+		MethodHandle handle = LOOKUP.unreflect(method);
+		Class<?> returnType = MethodType.methodType(method.getReturnType()).wrap().returnType();
+		try {
+			CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class), handle, MethodType.methodType(returnType, method.getDeclaringClass()));
+			return (Function<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable ex) {
+			return toGetter(handle);
+		}
+	}
+
+	private static Function<Object, Object> toGetter(MethodHandle handle) {
+		MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+		return bean -> {
+			try {
+				return getter.invokeExact(bean);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		};
+	}
+
+	/**
+	 * 将setter编译为BiConsumer，编译失败（如实体类对本类加载器不可见）时退回MethodHandle调用
+	 *
+	 * @param method
+	 * @return
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> compileSetter(Method method) throws IllegalAccessException {
+		method.setAccessible(true);
+		MethodHandle handle = LOOKUP.unreflect(method);
+		Class<?> paramType = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+		try {
+			CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), handle,
+					MethodType.methodType(void.class, method.getDeclaringClass(), paramType));
+			return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable ex) {
+			return toSetter(handle);
+		}
+	}
+
+	private static BiConsumer<Object, Object> toSetter(MethodHandle handle) {
+		MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (bean, value) -> {
+			try {
+				setter.invokeExact(bean, value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		};
+	}
+}
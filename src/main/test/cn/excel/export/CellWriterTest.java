@@ -0,0 +1,93 @@
+package cn.excel.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按列类型写入单元格测试
+ *
+ * @author yutyi
+ */
+public class CellWriterTest {
+
+    private static final String[] STYLE_NAMES = { "data_auto", "data_date", "data_time", "data_datetime", "data_number", "data_decimal", "data_string" };
+
+    @Test
+    public void textColumnFallsBackForOtherTypes() throws Exception {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Map<String, CellStyle> styles = new HashMap<>();
+            for (String name : STYLE_NAMES) {
+                styles.put(name, workbook.createCellStyle());
+            }
+            CellWriter writer = CellWriter.forType(String.class, styles, CellWriter.generic(styles));
+            Row row = workbook.createSheet().createRow(0);
+
+            writer.write(row.createCell(0), "N/A");
+            writer.write(row.createCell(1), 7);
+            writer.write(row.createCell(2), new Date(0));
+            writer.write(row.createCell(3), "一段超过二十个字符需要自动换行显示的比较长的文本内容");
+            writer.write(row.createCell(4), null);
+
+            assertEquals(CellType.STRING, row.getCell(0).getCellTypeEnum());
+            assertEquals(styles.get("data_auto").getIndex(), row.getCell(0).getCellStyle().getIndex());
+            assertEquals(CellType.NUMERIC, row.getCell(1).getCellTypeEnum());
+            assertEquals(7D, row.getCell(1).getNumericCellValue(), 0);
+            assertEquals(styles.get("data_number").getIndex(), row.getCell(1).getCellStyle().getIndex());
+            assertEquals(CellType.NUMERIC, row.getCell(2).getCellTypeEnum());
+            assertEquals(styles.get("data_datetime").getIndex(), row.getCell(2).getCellStyle().getIndex());
+            assertEquals(styles.get("data_string").getIndex(), row.getCell(3).getCellStyle().getIndex());
+            assertEquals(CellType.BLANK, row.getCell(4).getCellTypeEnum());
+        }
+    }
+
+    @Test
+    public void keysExportFormatsEachValueByItsType() throws Exception {
+        List<Map<String, Object>> list = new ArrayList<>();
+        Date date = new Date(1539705600000L);
+        Object[] values = { "N/A", 7, date };
+        for (Object value : values) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("value", value);
+            list.add(map);
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new ExcelExport("值", "value", list).write(os);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(os.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            int last = sheet.getLastRowNum();
+            Cell text = sheet.getRow(last - 2).getCell(1);
+            Cell number = sheet.getRow(last - 1).getCell(1);
+            Cell dateCell = sheet.getRow(last).getCell(1);
+
+            assertEquals("N/A", text.getStringCellValue());
+            assertEquals(CellType.NUMERIC, number.getCellTypeEnum());
+            assertEquals(7D, number.getNumericCellValue(), 0);
+            assertEquals(CellType.NUMERIC, dateCell.getCellTypeEnum());
+            assertTrue(DateUtil.isCellDateFormatted(dateCell));
+            assertNotNull(dateCell.getDateCellValue());
+            assertEquals(date, dateCell.getDateCellValue());
+            // 日期值设置列宽，与ExcelExport.setColumnWidth(16)的换算一致
+            assertEquals(16 * 256 + 184, sheet.getColumnWidth(1));
+        }
+    }
+}
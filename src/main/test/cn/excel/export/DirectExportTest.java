@@ -0,0 +1,175 @@
+package cn.excel.export;
+
+import cn.excel.ExcelField;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * 直接写出的xlsx与ExcelExport输出一致性测试
+ *
+ * @author yutyi
+ */
+public class DirectExportTest {
+
+    private static final Date DATE = new Date(Timestamp.valueOf("2018-10-17 08:30:00").getTime());
+
+    @Test
+    public void keysExportMatchesExcelExport() throws IOException {
+        String columns = "类型id,类型名称,状态,创建时间,有效,备注";
+        String keys = "typeId,typeName,state,createTime,valid,remark";
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("typeId", 1539730672078001L + i);
+            map.put("typeName", i == 1 ? "<粉尘&检测仪>" : "粉尘检测仪");
+            map.put("state", i);
+            map.put("createTime", DATE);
+            map.put("valid", i % 2 == 0);
+            map.put("remark", i == 2 ? null : "一段超过二十个字符需要自动换行显示的比较长的文本内容");
+            list.add(map);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new ExcelExport(columns, keys, list).write(expected);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new DirectExport(columns, keys, list).write(actual);
+
+        assertSameContent(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void schemaExportMatchesExcelExport() throws IOException {
+        List<Model> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Model model = new Model();
+            model.setCode("C" + i);
+            model.setAmount(i * 1.5);
+            model.setCount(i == 1 ? null : i);
+            model.setCreateTime(DATE);
+            list.add(model);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new ExcelExport(Model.class, list).write(expected);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new DirectExport(Model.class, list).write(actual);
+
+        assertSameContent(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void writeOnlyOnce() throws IOException {
+        DirectExport export = new DirectExport(Model.class, new ArrayList<Model>());
+        export.write(new ByteArrayOutputStream());
+        try {
+            export.write(new ByteArrayOutputStream());
+            fail();
+        } catch (RuntimeException ex) {
+            assertEquals("数据已写出，不能重复写出", ex.getMessage());
+        }
+    }
+
+    /**
+     * 比较两个文档第一个工作表的单元格值、类型、数据格式、合并单元格和列宽
+     */
+    private static void assertSameContent(byte[] expected, byte[] actual) throws IOException {
+        try (Workbook expectedBook = new XSSFWorkbook(new ByteArrayInputStream(expected));
+                Workbook actualBook = new XSSFWorkbook(new ByteArrayInputStream(actual))) {
+            Sheet expectedSheet = expectedBook.getSheetAt(0);
+            Sheet actualSheet = actualBook.getSheetAt(0);
+            assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+            assertEquals(expectedSheet.getMergedRegions(), actualSheet.getMergedRegions());
+            for (int r = 0; r <= expectedSheet.getLastRowNum(); r++) {
+                Row expectedRow = expectedSheet.getRow(r);
+                Row actualRow = actualSheet.getRow(r);
+                int lastCell = Math.max(expectedRow.getLastCellNum(), actualRow.getLastCellNum());
+                for (int c = 0; c < lastCell; c++) {
+                    assertSameCell("行" + r + "列" + c, expectedRow.getCell(c), actualRow.getCell(c));
+                }
+            }
+            for (int c = 0; c < expectedSheet.getRow(expectedSheet.getLastRowNum()).getLastCellNum(); c++) {
+                assertEquals("列宽" + c, expectedSheet.getColumnWidth(c), actualSheet.getColumnWidth(c));
+            }
+        }
+    }
+
+    private static void assertSameCell(String message, Cell expected, Cell actual) {
+        CellType expectedType = expected == null ? CellType.BLANK : expected.getCellTypeEnum();
+        CellType actualType = actual == null ? CellType.BLANK : actual.getCellTypeEnum();
+        assertEquals(message, expectedType, actualType);
+        if (expectedType == CellType.NUMERIC) {
+            assertEquals(message, expected.getNumericCellValue(), actual.getNumericCellValue(), 0);
+            assertEquals(message, expected.getCellStyle().getDataFormatString(), actual.getCellStyle().getDataFormatString());
+        } else if (expectedType == CellType.STRING) {
+            assertEquals(message, expected.getStringCellValue(), actual.getStringCellValue());
+            assertEquals(message, expected.getCellStyle().getWrapText(), actual.getCellStyle().getWrapText());
+        } else if (expectedType == CellType.BOOLEAN) {
+            assertEquals(message, expected.getBooleanCellValue(), actual.getBooleanCellValue());
+        }
+    }
+
+    public static class Model {
+
+        @ExcelField(sort = 1, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "金额")
+        private Double amount;
+
+        @ExcelField(sort = 3, columnName = "数量")
+        private Integer count;
+
+        @ExcelField(sort = 4, columnName = "创建时间")
+        private Date createTime;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+    }
+}
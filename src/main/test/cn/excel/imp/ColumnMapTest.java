@@ -0,0 +1,156 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelField;
+import cn.excel.ExcelSchema;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 按列头名称对应列测试
+ *
+ * @author yutyi
+ */
+public class ColumnMapTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bindColumnsByHeader() {
+        ColumnMap columnMap = new ColumnMap();
+        List<String> missing = new ArrayList<>();
+        // 列顺序与列定义不同，含未定义的列和重复列头
+        Object[] header = { " 姓名 ", "备注", "编号", null, "姓名" };
+        assertTrue(columnMap.resolveHeader(ExcelSchema.of(User.class), header, missing));
+
+        assertEquals(Collections.singletonList("年龄"), missing);
+        assertEquals(2, columnMap.column(0));
+        assertEquals(0, columnMap.column(1));
+        assertEquals(-1, columnMap.column(2));
+        assertEquals(1, columnMap.slot(0));
+        assertEquals(-1, columnMap.slot(1));
+        assertEquals(0, columnMap.slot(2));
+        assertEquals(-1, columnMap.slot(4));
+        assertEquals(-1, columnMap.slot(100));
+        assertEquals(3, columnMap.width());
+    }
+
+    @Test
+    public void keepPositionsWithoutHeader() {
+        ColumnMap columnMap = new ColumnMap();
+        List<String> missing = new ArrayList<>();
+        assertFalse(columnMap.resolveHeader(ExcelSchema.of(User.class), new Object[] { "a", "b" }, missing));
+        assertFalse(columnMap.isResolved());
+        assertTrue(missing.isEmpty());
+        // 解析前按列号读取
+        assertEquals(20, columnMap.slot(20));
+
+        columnMap.resolvePositional(3);
+        assertEquals(1, columnMap.slot(1));
+        assertEquals(-1, columnMap.slot(3));
+    }
+
+    @Test
+    public void rejectMissingRequiredColumn() {
+        try {
+            new ColumnMap().resolveHeader(ExcelSchema.of(User.class), new Object[] { "姓名", "年龄" }, new ArrayList<>());
+            fail();
+        } catch (RuntimeException ex) {
+            assertEquals("模板格式错误，缺少列：编号", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void growRowsBeforeHeader() {
+        ColumnMap columnMap = new ColumnMap();
+        Object[] values = columnMap.values(null, 2);
+        assertEquals(16, values.length);
+        values = columnMap.values(values, 40);
+        assertTrue(values.length > 40);
+
+        columnMap.resolvePositional(3);
+        assertEquals(3, columnMap.values(null, 0).length);
+    }
+
+    @Test
+    public void importReorderedColumns() throws Exception {
+        File file = folder.newFile("user.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("姓名");
+            header.createCell(1).setCellValue("备注");
+            header.createCell(2).setCellValue("编号");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("张三");
+            row.createCell(1).setCellValue("忽略");
+            row.createCell(2).setCellValue("C1");
+            workbook.write(os);
+        }
+
+        for (boolean streaming : Arrays.asList(false, true)) {
+            try (ExcelImport excelImport = new ExcelImport(User.class, 1, null, file.getPath(), streaming)) {
+                List<User> users = excelImport.getModelList(User.class);
+                assertEquals(1, users.size());
+                assertEquals("C1", users.get(0).getCode());
+                assertEquals("张三", users.get(0).getName());
+                assertNull(users.get(0).getAge());
+            }
+        }
+    }
+
+    public static class User {
+
+        @ExcelField(sort = 1, required = true, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "姓名")
+        private String name;
+
+        @ExcelField(sort = 3, format = "int", columnName = "年龄")
+        private Integer age;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+    }
+}
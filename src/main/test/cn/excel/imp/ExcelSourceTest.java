@@ -0,0 +1,95 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelField;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * 本地文件导入测试：打开工作薄不修改原文件，标记错误后可以写回原文件
+ *
+ * @author yutyi
+ */
+public class ExcelSourceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeBackXlsx() throws Exception {
+        File file = folder.newFile("user.xlsx");
+        this.createFile(file, new XSSFWorkbook());
+        byte[] original = Files.readAllBytes(file.toPath());
+        try (ExcelImport excelImport = new ExcelImport(User.class, 1, null, file.toPath(), false)) {
+            assertFalse(excelImport.validate());
+            assertEquals(1, excelImport.getErrorNum());
+            // 标记错误不修改原文件
+            assertArrayEquals(original, Files.readAllBytes(file.toPath()));
+            excelImport.write(file.getPath());
+        }
+
+        try (Workbook result = WorkbookFactory.create(file)) {
+            Sheet sheet = result.getSheetAt(0);
+            assertEquals("name2", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertNotNull(sheet.getCellComment(new CellAddress(2, 0)));
+        }
+    }
+
+    @Test
+    public void readXls() throws Exception {
+        File file = folder.newFile("user.xls");
+        this.createFile(file, new HSSFWorkbook());
+        byte[] original = Files.readAllBytes(file.toPath());
+        try (ExcelImport excelImport = new ExcelImport(User.class, 1, null, file.toPath(), false)) {
+            assertFalse(excelImport.validate());
+            assertEquals(1, excelImport.getErrorNum());
+        }
+        assertArrayEquals(original, Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * 首行为表头，第2行缺少必填的编号
+     */
+    private void createFile(File file, Workbook workbook) throws Exception {
+        try (Workbook wb = workbook; OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = wb.createSheet("用户");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("编号");
+            header.createCell(1).setCellValue("姓名");
+            for (int r = 1; r <= 3; r++) {
+                Row row = sheet.createRow(r);
+                if (r != 2) {
+                    row.createCell(0).setCellValue("C" + r);
+                }
+                row.createCell(1).setCellValue("name" + r);
+            }
+            wb.write(os);
+        }
+    }
+
+    public static class User {
+
+        @ExcelField(sort = 1, required = true, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "姓名")
+        private String name;
+    }
+}
@@ -0,0 +1,173 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelField;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 按批次导入到H2内存数据库测试
+ *
+ * @author yutyi
+ */
+public class JdbcBatchSinkTest {
+
+    private static final String INSERT = "insert into t_user(code, name, age) values(?, ?, ?)";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:sink;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_user(code varchar(20) primary key, name varchar(20), age int)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table t_user");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void readInBatches() throws Exception {
+        // 10行数据，第6行缺少必填的编号，检查不通过
+        File file = this.createFile(10, 6);
+        List<Integer> batchSizes = new ArrayList<>();
+        try (ExcelImport excelImport = new ExcelImport(User.class, 1, null, file.getPath(), true);
+                JdbcBatchSink<User> sink = new JdbcBatchSink<>(connection, INSERT, JdbcBatchSinkTest::bind)) {
+            excelImport.read(User.class, 4, batch -> {
+                batchSizes.add(batch.size());
+                sink.accept(batch);
+            });
+            assertEquals(9, sink.getCount());
+        }
+
+        assertEquals(Arrays.asList(4, 4, 1), batchSizes);
+        assertEquals(9, this.count("select count(*) from t_user"));
+        assertEquals(0, this.count("select count(*) from t_user where code = 'C6'"));
+        assertEquals(1, this.count("select count(*) from t_user where code = 'C10' and name = 'name10' and age = 30"));
+    }
+
+    @Test
+    public void readExactBatches() throws Exception {
+        File file = this.createFile(8, -1);
+        List<Integer> batchSizes = new ArrayList<>();
+        try (ExcelImport excelImport = new ExcelImport(User.class, 1, null, file.getPath(), true);
+                JdbcBatchSink<User> sink = new JdbcBatchSink<>(connection, INSERT, JdbcBatchSinkTest::bind)) {
+            excelImport.read(User.class, 4, batch -> {
+                batchSizes.add(batch.size());
+                sink.accept(batch);
+            });
+            assertEquals(8, sink.getCount());
+        }
+
+        // 最后一批刚好满时不再提交空批次
+        assertEquals(Arrays.asList(4, 4), batchSizes);
+        assertEquals(8, this.count("select count(*) from t_user"));
+    }
+
+    private static void bind(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getCode());
+        statement.setString(2, user.getName());
+        statement.setObject(3, user.getAge());
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * 生成导入文件，首行为表头
+     *
+     * @param rows 数据行数
+     * @param blankCodeRow 编号为空的行，不需要时为-1
+     */
+    private File createFile(int rows, int blankCodeRow) throws IOException {
+        File file = folder.newFile("user.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("用户");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("编号");
+            header.createCell(1).setCellValue("姓名");
+            header.createCell(2).setCellValue("年龄");
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                if (r != blankCodeRow) {
+                    row.createCell(0).setCellValue("C" + r);
+                }
+                row.createCell(1).setCellValue("name" + r);
+                row.createCell(2).setCellValue(20 + r);
+            }
+            workbook.write(os);
+        }
+        return file;
+    }
+
+    public static class User {
+
+        @ExcelField(sort = 1, required = true, unique = true, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "姓名")
+        private String name;
+
+        @ExcelField(sort = 3, format = "int", columnName = "年龄")
+        private Integer age;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+    }
+}
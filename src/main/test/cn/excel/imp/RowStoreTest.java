@@ -0,0 +1,181 @@
+package cn.excel.imp;
+
+import cn.excel.ExcelField;
+import cn.excel.ExcelSchema;
+import cn.excel.HandleField;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按列存储的导入数据测试
+ *
+ * @author yutyi
+ */
+public class RowStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void storeTypedValues() {
+        RowStore store = new RowStore(ExcelSchema.of(Model.class));
+        Date date = new Date(1539705600000L);
+        store.add(new Object[] { "A", 1.5, date });
+        store.add(null);
+        // 同一列出现不同类型的值
+        store.add(new Object[] { 2D, true, "2018-10-17" });
+
+        assertEquals(3, store.size());
+        assertEquals("A", store.get(0, 0));
+        assertEquals(1.5, store.get(0, 1));
+        assertEquals(date, store.get(0, 2));
+        assertTrue(store.isEmpty(1));
+        assertNull(store.get(1, 0));
+        assertEquals(2D, store.get(2, 0));
+        assertEquals(true, store.get(2, 1));
+        assertEquals("2018-10-17", store.get(2, 2));
+    }
+
+    @Test
+    public void rowViewReadsAndWritesColumns() {
+        RowStore store = new RowStore(ExcelSchema.of(Model.class));
+        store.add(new Object[] { "A", null, null });
+
+        Map<String, Object> row = store.row(0);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("code", "A");
+        assertEquals(expected, row);
+
+        row.put("amount", 3D);
+        row.remove("code");
+        expected.clear();
+        expected.put("amount", 3D);
+        assertEquals(expected, store.row(0));
+        assertNull(store.get(0, 0));
+    }
+
+    @Test
+    public void extraKeysSurviveNewViews() {
+        RowStore store = new RowStore(ExcelSchema.of(Model.class));
+        store.add(new Object[] { "A", null, null });
+        store.add(new Object[] { "B", null, null });
+
+        Map<String, Object> before = store.row(0);
+        store.row(0).put("remark", "checked");
+
+        assertEquals("checked", store.row(0).get("remark"));
+        assertEquals("checked", before.get("remark"));
+        assertTrue(store.row(0).containsKey("remark"));
+        assertEquals(2, store.row(0).size());
+        assertFalse(store.row(1).containsKey("remark"));
+
+        store.row(0).remove("remark");
+        assertNull(store.row(0).get("remark"));
+    }
+
+    @Test
+    public void valueSetInValidateIsReadInTranslate() throws Exception {
+        File file = folder.newFile("remark.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("编号");
+            header.createCell(1).setCellValue("备注");
+            for (int r = 1; r <= 3; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("C" + r);
+                row.createCell(1).setCellValue("R" + r);
+            }
+            workbook.write(os);
+        }
+
+        try (ExcelImport excelImport = new ExcelImport(Remarked.class, 1, null, file.getPath())) {
+            assertTrue(excelImport.validate());
+            List<Remarked> models = excelImport.getModelList(Remarked.class);
+            assertEquals(3, models.size());
+            assertEquals("C1:R1", models.get(0).getRemark());
+            assertEquals("C3:R3", models.get(2).getRemark());
+        }
+    }
+
+    public static class Model {
+
+        @ExcelField(sort = 1, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "金额")
+        private Double amount;
+
+        @ExcelField(sort = 3, columnName = "日期")
+        private Date date;
+    }
+
+    public static class Remarked {
+
+        @ExcelField(sort = 1, columnName = "编号")
+        private String code;
+
+        @ExcelField(sort = 2, columnName = "备注", handleField = RemarkField.class)
+        private String remark;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    /**
+     * 检查时把编号和备注拼接后保存在行数据中，转换时取出
+     */
+    public static class RemarkField extends HandleField {
+
+        @Override
+        public void setParams(Object params) {
+        }
+
+        @Override
+        public String getMessage() {
+            return null;
+        }
+
+        @Override
+        public boolean validate(String fieldName, Map<String, Object> columns) {
+            columns.put("checkedRemark", columns.get("code") + ":" + columns.get(fieldName));
+            return true;
+        }
+
+        @Override
+        public Object translate(Map<String, Object> columns) {
+            return columns.get("checkedRemark");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package cn.excel.imp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * xlsx共享字符串表测试
+ *
+ * @author yutyi
+ */
+public class SharedStringsTest {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"5\" uniqueCount=\"5\">"
+            + "<si><t>编号</t></si>"
+            + "<si><t/></si>"
+            + "<si><r><rPr><b/></rPr><t>粗体</t></r><r><t xml:space=\"preserve\"> 正文</t></r></si>"
+            + "<si><t>plain text</t></si>"
+            + "<si><t>€ 😀</t></si>"
+            + "</sst>";
+
+    @Test
+    public void loadInMemory() throws IOException {
+        this.assertStrings(64L << 20);
+    }
+
+    @Test
+    public void loadAfterSpill() throws IOException {
+        // 预算只够前两个字符串，之后转存到临时文件并通过内存映射读取
+        this.assertStrings(8);
+    }
+
+    @Test
+    public void loadWithoutMemory() throws IOException {
+        this.assertStrings(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectMissingIndex() throws IOException {
+        try (SharedStrings strings = this.load(64L << 20)) {
+            strings.get(5);
+        }
+    }
+
+    private void assertStrings(long memoryBudget) throws IOException {
+        try (SharedStrings strings = this.load(memoryBudget)) {
+            assertEquals(5, strings.size());
+            assertEquals("编号", strings.get(0));
+            assertEquals("", strings.get(1));
+            assertEquals("粗体 正文", strings.get(2));
+            assertEquals("plain text", strings.get(3));
+            assertEquals("€ 😀", strings.get(4));
+        }
+    }
+
+    private SharedStrings load(long memoryBudget) throws IOException {
+        SharedStrings strings = new SharedStrings(memoryBudget);
+        strings.load(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)));
+        return strings;
+    }
+}
@@ -0,0 +1,61 @@
+package cn.excel.imp;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 唯一性索引测试，分别在内存中和转存到临时文件后与HashMap的结果比较
+ *
+ * @author yutyi
+ */
+public class UniqueIndexTest {
+
+    @Test
+    public void findDuplicatesInMemory() {
+        this.compareWithHashMap(64L << 20);
+    }
+
+    @Test
+    public void findDuplicatesAfterSpill() {
+        // 预算很小，哈希表扩容后使用内存映射文件，值写入临时文件
+        this.compareWithHashMap(1000);
+    }
+
+    @Test
+    public void findDuplicatesWithoutMemory() {
+        this.compareWithHashMap(0);
+    }
+
+    @Test
+    public void compositeKeysAreNotAmbiguous() {
+        try (UniqueIndex index = new UniqueIndex(0)) {
+            assertEquals(-1, index.putIfAbsent(new String[] { "ab", "c" }, 1));
+            assertEquals(-1, index.putIfAbsent(new String[] { "a", "bc" }, 2));
+            assertEquals(-1, index.putIfAbsent(new String[] { null, "c" }, 3));
+            assertEquals(-1, index.putIfAbsent(new String[] { "", "c" }, 4));
+            assertEquals(-1, index.putIfAbsent(new String[] { "编号", "c" }, 5));
+            assertEquals(1, index.putIfAbsent(new String[] { "ab", "c" }, 6));
+            assertEquals(3, index.putIfAbsent(new String[] { null, "c" }, 7));
+            assertEquals(5, index.putIfAbsent(new String[] { "编号", "c" }, 8));
+            assertEquals(5, index.size());
+        }
+    }
+
+    private void compareWithHashMap(long memoryBudget) {
+        Map<String, Integer> expected = new HashMap<>();
+        try (UniqueIndex index = new UniqueIndex(memoryBudget)) {
+            for (int row = 0; row < 20000; row++) {
+                // 约一半的值重复出现
+                String code = "C" + (row * 7919 % 10007);
+                Integer first = expected.putIfAbsent(code, row);
+                int actual = index.putIfAbsent(new String[] { code, "x" }, row);
+                assertEquals("行" + row, first == null ? -1 : first.intValue(), actual);
+            }
+            assertEquals(expected.size(), index.size());
+        }
+    }
+}
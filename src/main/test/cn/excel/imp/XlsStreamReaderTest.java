@@ -0,0 +1,40 @@
+package cn.excel.imp;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * xls事件模型流式读取测试，与xlsx使用相同的测试文档
+ *
+ * @author yutyi
+ */
+public class XlsStreamReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readFile() throws IOException {
+        File file = folder.newFile("sample.xls");
+        XlsxStreamReaderTest.createSample(new HSSFWorkbook(), file);
+        try (SheetReader reader = new XlsStreamReader(file)) {
+            XlsxStreamReaderTest.assertSample(reader);
+        }
+    }
+
+    @Test
+    public void readStream() throws IOException {
+        File file = folder.newFile("sample.xls");
+        XlsxStreamReaderTest.createSample(new HSSFWorkbook(), file);
+        try (InputStream is = new FileInputStream(file); SheetReader reader = new XlsStreamReader(is)) {
+            XlsxStreamReaderTest.assertSample(reader);
+        }
+    }
+}
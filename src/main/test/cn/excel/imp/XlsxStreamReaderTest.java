@@ -0,0 +1,179 @@
+package cn.excel.imp;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * xlsx流式读取测试
+ *
+ * @author yutyi
+ */
+public class XlsxStreamReaderTest {
+
+    static final Date DATE = new Date(Timestamp.valueOf("2018-10-17 00:00:00").getTime());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readFile() throws IOException {
+        File file = folder.newFile("sample.xlsx");
+        createSample(new XSSFWorkbook(), file);
+        try (SheetReader reader = new XlsxStreamReader(file)) {
+            assertSample(reader);
+        }
+    }
+
+    @Test
+    public void readStream() throws IOException {
+        File file = folder.newFile("sample.xlsx");
+        createSample(new XSSFWorkbook(), file);
+        try (InputStream is = new FileInputStream(file); SheetReader reader = new XlsxStreamReader(is)) {
+            assertSample(reader);
+        }
+    }
+
+    @Test
+    public void readEmptySharedString() throws IOException {
+        // Excel以外的程序可能为共享字符串单元格写出空的<v/>
+        File file = folder.newFile("empty.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+            Row row = workbook.createSheet().createRow(0);
+            row.createCell(0).setCellValue("a");
+            row.createCell(1).setCellValue("b");
+            workbook.write(os);
+        }
+        replaceEntry(file, "xl/worksheets/sheet1.xml", xml -> xml.replaceFirst("(<c r=\"B1\"[^>]*t=\"s\"[^>]*>)<v>\\d+</v>", "$1<v/>"));
+
+        try (SheetReader reader = new XlsxStreamReader(file)) {
+            Object[] values = read(reader, 0).get(0);
+            assertEquals("a", values[0]);
+            assertNull(values[1]);
+        }
+    }
+
+    /**
+     * 生成测试文档：第1个工作表含文本、数值、布尔、日期、公式和空行，第2个工作表只有一个单元格
+     */
+    static void createSample(Workbook workbook, File file) throws IOException {
+        try (Workbook wb = workbook; OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = wb.createSheet("数据");
+            Row header = sheet.createRow(0);
+            String[] titles = { "编号", "数量", "有效", "日期", "合计", "名称" };
+            for (int i = 0; i < titles.length; i++) {
+                header.createCell(i).setCellValue(titles[i]);
+            }
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("C1");
+            row.createCell(1).setCellValue(3.5);
+            row.createCell(2).setCellValue(true);
+            Cell date = row.createCell(3);
+            date.setCellValue(DATE);
+            date.setCellStyle(dateStyle);
+            row.createCell(4).setCellFormula("B2*2");
+            row.createCell(5).setCellFormula("A2&\"x\"");
+            // 第3行为空行，第4行超出解析列头前的初始长度
+            Row far = sheet.createRow(3);
+            far.createCell(0).setCellValue("C3");
+            far.createCell(20).setCellValue("far");
+            wb.createSheet("第二页").createRow(0).createCell(0).setCellValue("B");
+            // 保存公式的计算结果
+            wb.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            wb.write(os);
+        }
+    }
+
+    static void assertSample(SheetReader reader) throws IOException {
+        assertEquals(Arrays.asList("数据", "第二页"), reader.getSheetNames());
+
+        Map<Integer, Object[]> rows = read(reader, 0);
+        assertArrayEquals(new Object[] { "编号", "数量", "有效", "日期", "合计", "名称" }, Arrays.copyOf(rows.get(0), 6));
+        Object[] values = rows.get(1);
+        assertEquals("C1", values[0]);
+        assertEquals(3.5, values[1]);
+        assertEquals(true, values[2]);
+        assertEquals(DATE, values[3]);
+        assertEquals(7.0, values[4]);
+        assertEquals("C1x", values[5]);
+        // 空行可能不回调(xlsx)或回调全部为null的行数据(xls)
+        Object[] blank = rows.get(2);
+        for (int i = 0; blank != null && i < blank.length; i++) {
+            assertNull(blank[i]);
+        }
+        assertEquals("C3", rows.get(3)[0]);
+        assertEquals("far", rows.get(3)[20]);
+
+        assertEquals("B", read(reader, 1).get(0)[0]);
+    }
+
+    /**
+     * 按列号读取工作表的所有行
+     *
+     * @return 行号 -> 行数据
+     */
+    static Map<Integer, Object[]> read(SheetReader reader, int sheetIndex) throws IOException {
+        Map<Integer, Object[]> rows = new LinkedHashMap<>();
+        reader.read(sheetIndex, new ColumnMap(), (rowIndex, values) -> {
+            if (values != null) {
+                rows.put(rowIndex, values.clone());
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * 修改xlsx中的条目
+     */
+    private static void replaceEntry(File file, String name, UnaryOperator<String> replacer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new FileInputStream(file)); ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                    content.write(buffer, 0, n);
+                }
+                byte[] data = content.toByteArray();
+                if (entry.getName().equals(name)) {
+                    data = replacer.apply(new String(data, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+        Files.write(file.toPath(), bytes.toByteArray());
+    }
+}
@@ -0,0 +1,70 @@
+package cn.excel.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * 单元格值转换测试
+ *
+ * @author yutyi
+ */
+public class ConvertersTest {
+
+    @Test
+    public void toTextKeepsLongIds() {
+        // ExportTest中的编号，超过15位有效数字也要按原值输出
+        assertEquals("1539730672078001", Converters.toText(1539730672078001D));
+        assertEquals("1539730672078001", Converters.forType(String.class).convert(1539730672078001D));
+        assertEquals("-1539730672078001", Converters.toText(-1539730672078001D));
+        assertEquals("9007199254740992", Converters.toText(9007199254740992D));
+        assertEquals("100000000000000000000", Converters.toText(1e20));
+    }
+
+    @Test
+    public void toTextRemovesFloatingPointNoise() {
+        assertEquals("0.3", Converters.toText(0.1 + 0.2));
+        assertEquals("12", Converters.toText(12.0));
+        assertEquals("12.5", Converters.toText(12.5D));
+        assertEquals("0", Converters.toText(-0.0));
+        assertEquals("NaN", Converters.toText(Double.NaN));
+    }
+
+    @Test
+    public void convertIntegers() {
+        assertEquals(12, Converters.forType(Integer.class).convert(12.0));
+        assertEquals(12, Converters.forType(int.class).convert(" 12.0 "));
+        assertEquals(1539730672078001L, Converters.forType(Long.class).convert(1539730672078001D));
+        assertEquals((short) 7, Converters.forType(Short.class).convert(7L));
+        assertEquals(new BigInteger("123456789012345678901"), Converters.forType(BigInteger.class).convert("123456789012345678901"));
+        assertNull(Converters.forType(Integer.class).convert(" "));
+    }
+
+    @Test
+    public void rejectIntegerOverflow() {
+        assertRejected(Integer.class, "3000000000");
+        assertRejected(Integer.class, 3000000000D);
+        assertRejected(Integer.class, 3000000000L);
+        assertRejected(Short.class, 40000D);
+        assertRejected(Short.class, "40000");
+        assertRejected(Byte.class, 200);
+        assertRejected(Long.class, "1e20");
+        assertRejected(Integer.class, 12.5);
+        assertRejected(Integer.class, "12.5");
+        assertRejected(Integer.class, Double.NaN);
+        assertRejected(BigInteger.class, 0.5);
+    }
+
+    private static void assertRejected(Class<?> type, Object value) {
+        try {
+            Object result = Converters.forType(type).convert(value);
+            fail(value + "转换为" + type.getSimpleName() + "应当失败，实际为" + result);
+        } catch (IllegalArgumentException ex) {
+            // 转换失败作为单元格的检查错误
+        }
+    }
+}
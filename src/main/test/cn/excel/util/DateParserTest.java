@@ -0,0 +1,86 @@
+package cn.excel.util;
+
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 日期解析测试
+ *
+ * @author yutyi
+ */
+public class DateParserTest {
+
+    @Test
+    public void parseSupportedFormats() {
+        DateParser parser = new DateParser();
+        assertEquals(LocalDateTime.of(2018, 10, 17, 8, 30, 15), parser.parse("2018-10-17 08:30:15"));
+        assertEquals(LocalDateTime.of(2018, 10, 17, 8, 30), parser.parse("2018-10-17 8:30"));
+        assertEquals(LocalDateTime.of(2018, 1, 7, 0, 0), parser.parse("2018-1-7"));
+        assertEquals(LocalDateTime.of(2018, 10, 17, 0, 0), parser.parse("2018/10/17"));
+        assertEquals(LocalDateTime.of(2018, 10, 17, 23, 59, 59), parser.parse("2018/10/17 23:59:59"));
+        assertEquals(LocalDateTime.of(2018, 10, 17, 8, 30, 15, 123000000), parser.parse("2018-10-17 08:30:15.123"));
+        assertEquals(LocalDateTime.of(2018, 10, 17, 0, 0), parser.parse("2018年10月17日"));
+        // 只有时间的格式日期为1970-01-01
+        assertEquals(LocalDateTime.of(1970, 1, 1, 8, 30, 15), parser.parse("08:30:15"));
+        assertEquals(LocalDateTime.of(2020, 2, 29, 0, 0), parser.parse("2020-02-29"));
+    }
+
+    @Test
+    public void rejectInvalidDates() {
+        DateParser parser = new DateParser();
+        assertNull(parser.parse(null));
+        assertNull(parser.parse(""));
+        assertNull(parser.parse("abc"));
+        assertNull(parser.parse("2019-02-29"));
+        assertNull(parser.parse("2018-04-31"));
+        assertNull(parser.parse("2018-13-01"));
+        assertNull(parser.parse("2018-10-17 24:00"));
+        assertNull(parser.parse("2018-10-17 12:60"));
+        assertNull(parser.parse("2018-10-17x"));
+        assertNull(parser.parse("2018.10.17"));
+    }
+
+    @Test
+    public void switchFormatWithinColumn() {
+        // 上次成功的格式优先尝试，格式变化后仍能解析
+        DateParser parser = new DateParser();
+        assertEquals(LocalDateTime.of(2018, 10, 17, 0, 0), parser.parse("2018/10/17"));
+        assertEquals(LocalDateTime.of(2018, 10, 18, 0, 0), parser.parse("2018/10/18"));
+        assertEquals(LocalDateTime.of(2018, 10, 19, 9, 0), parser.parse("2018-10-19 09:00"));
+        assertEquals(LocalDateTime.of(2018, 10, 20, 0, 0), parser.parse("2018/10/20"));
+    }
+
+    @Test
+    public void parseInParallel() {
+        DateParser parser = new DateParser();
+        List<LocalDateTime> results = IntStream.range(0, 10000).parallel()
+                .mapToObj(i -> parser.parse(i % 2 == 0 ? "2018-10-" + (i % 28 + 1) : "2018/10/" + (i % 28 + 1)))
+                .collect(Collectors.toList());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(LocalDateTime.of(2018, 10, i % 28 + 1, 0, 0), results.get(i));
+        }
+    }
+
+    @Test
+    public void toTimestampTrimsText() {
+        assertEquals(Timestamp.valueOf("2018-10-17 08:30:00"), DateUtils.toTimestamp(" 2018-10-17 08:30 ", new DateParser()));
+        assertNull(DateUtils.toTimestamp("not a date", new DateParser()));
+    }
+
+    @Test
+    public void formatDate() {
+        Date date = Timestamp.valueOf("2018-10-17 08:30:15");
+        assertEquals("2018-10-17 08:30:15", DateUtils.formatDate(date, "yyyy-MM-dd HH:mm:ss"));
+        assertEquals("2018年10月17日", DateUtils.formatDate(date, "yyyy年MM月dd日"));
+        assertEquals(new DateUtils().format(date, "yyyy-MM-dd"), DateUtils.formatDate(date, "yyyy-MM-dd"));
+    }
+}